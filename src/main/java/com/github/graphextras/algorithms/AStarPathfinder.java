@@ -10,7 +10,6 @@ import javax.annotation.Nonnull;
 import java.util.*;
 import java.util.function.*;
 
-import static com.github.graphextras.algorithms.Pathfinders.reconstructPath;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -56,50 +55,115 @@ public final class AStarPathfinder<N, E> extends AbstractHeuristicPathfinder<N,
         super(graph, edgeWeight, heuristicFunc);
     }
 
+    /**
+     * Instantiates a new {@link AStarPathfinder} object whose edge weights
+     * can be updated between searches.
+     *
+     * @param graph the graph on which the searches will be performed.
+     * @param edgeWeights the weights of the given graph's edges
+     * @param heuristicFunc function for estimating the distance between a
+     *                      node and the destination.
+     */
+    public AStarPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final WeightOverlay<E> edgeWeights,
+            @Nonnull final HeuristicFunction<N> heuristicFunc) {
+        super(graph, edgeWeights, heuristicFunc);
+    }
+
     /**
      * Clears the contents of preexisting collections and
      * performs preliminary initializations.
      *
      * @param source the source node
-     * @param destination the destination node
+     * @param sourceFScore the estimated cost of the path from the source to the destination
+     * @param departureTime the time at which the source is left
      */
-    private void initialize(final N source, final N destination) {
+    private void initialize(final N source, final double sourceFScore, final double departureTime) {
+        beginSearch(departureTime);
         visited.clear();
         gScore.clear();
         fringe.clear();
+        parents.clear();
 
         parents.put(source, source);
         gScore.put(source, 0.0);
-        fringe.add(ObjectDoubleImmutablePair.of(source, heuristic(source, destination)));
+        fringe.add(ObjectDoubleImmutablePair.of(source, sourceFScore));
+    }
+
+    /**
+     * Expands the given node, unless it has already been visited, by relaxing
+     * the edges towards its successors.
+     *
+     * @param current the node to expand
+     * @param estimate function estimating the remaining distance from a node
+     */
+    private void expand(final N current, final ToDoubleFunction<N> estimate) {
+        if (!visited.contains(current)) {
+            visited.add(current);
+            getGraph().successors(current).forEach(successor -> {
+                final double currentGScore = gScore.getDouble(current);
+                final double tentativeGScore = currentGScore
+                        + weightOf(getGraph().edgeConnecting(current, successor).orElseThrow(), currentGScore);
+
+                if (tentativeGScore < gScore.getOrDefault(successor, Double.MAX_VALUE)) {
+                    parents.put(successor, current);
+                    gScore.put(successor, tentativeGScore);
+                    fringe.add(ObjectDoubleImmutablePair.of(
+                            successor,
+                            tentativeGScore + estimate.applyAsDouble(successor))
+                    );
+                }
+            });
+        }
     }
 
     @Override
-    public List<N> findPath(@Nonnull final N source, @Nonnull final N destination) {
-        initialize(requireNonNull(source), requireNonNull(destination));
+    public PathResult<N> findPathResult(@Nonnull final N source, @Nonnull final N destination,
+            final double departureTime) {
+        requireNonNull(destination);
+        initialize(requireNonNull(source), heuristic(source, destination), departureTime);
 
         while (!fringe.isEmpty()) {
             final N current = fringe.poll().left();
 
             if (current.equals(destination)) {
-                return reconstructPath(parents, destination);
+                return PathResult.ofParents(parents, destination, gScore.getDouble(destination));
             }
-            if (!visited.contains(current)){
-                visited.add(current);
-                getGraph().successors(current).forEach(successor -> {
-                    final double tentativeGScore = gScore.getDouble(current)
-                            + weightOf(getGraph().edgeConnecting(current, successor).orElseThrow());
-
-                    if (tentativeGScore < gScore.getOrDefault(successor, Double.MAX_VALUE)) {
-                        parents.put(successor, current);
-                        gScore.put(successor, tentativeGScore);
-                        fringe.add(ObjectDoubleImmutablePair.of(
-                                successor,
-                                tentativeGScore + heuristic(successor, destination))
-                        );
-                    }
-                });
+            expand(current, node -> heuristic(node, destination));
+        }
+        return PathResult.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All destinations are served by a single search tree. Nodes are prioritized by the
+     * estimated distance to the closest destination, so the heuristic function must be
+     * consistent for the returned paths to be optimal.
+     * </p>
+     */
+    @Override
+    public Map<N, PathResult<N>> findPathResults(@Nonnull final N source, @Nonnull final Set<N> destinations,
+            final double departureTime) {
+        final Set<N> remaining = new HashSet<>(requireNonNull(destinations));
+        final Map<N, PathResult<N>> paths = new HashMap<>();
+        final ToDoubleFunction<N> closest = node -> {
+            double estimate = Double.MAX_VALUE;
+            for (final N destination : destinations) {
+                estimate = Math.min(estimate, heuristic(node, destination));
+            }
+            return estimate;
+        };
+        initialize(requireNonNull(source), closest.applyAsDouble(source), departureTime);
+
+        while (!fringe.isEmpty() && !remaining.isEmpty()) {
+            final N current = fringe.poll().left();
+
+            if (remaining.remove(current)) {
+                paths.put(current, PathResult.ofParents(parents, current, gScore.getDouble(current)));
             }
+            expand(current, closest);
         }
-        return Collections.emptyList();
+        remaining.forEach(destination -> paths.put(destination, PathResult.empty()));
+        return paths;
     }
 }
@@ -22,6 +22,12 @@ abstract class AbstractHeuristicPathfinder<N, E> extends AbstractPathfinder<N, E
         this.heuristicFunc = requireNonNull(heuristicFunc);
     }
 
+    protected AbstractHeuristicPathfinder(@Nonnull final Network<N, E> graph,
+            @Nonnull final WeightOverlay<E> edgeWeights, @Nonnull final HeuristicFunction<N> heuristicFunc) {
+        super(graph, edgeWeights);
+        this.heuristicFunc = requireNonNull(heuristicFunc);
+    }
+
     /**
      * Applies the heuristic function for estimating the distance between
      * a node and the destination.
@@ -3,6 +3,10 @@ package com.github.graphextras.algorithms;
 import com.google.common.graph.Network;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -17,13 +21,29 @@ import static java.util.Objects.requireNonNull;
 abstract class AbstractPathfinder<N, E> implements Pathfinder<N> {
 
     private final Network<N, E> graph;
-    private final ToDoubleFunction<E> edgeWeight;
+    private final Supplier<? extends EdgeWeightFunction<E>> edgeWeights;
+    private EdgeWeightFunction<E> currentWeights;
+    private double departureTime;
 
     protected AbstractPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final ToDoubleFunction<E> edgeWeight) {
+        this(graph, constantWeights(requireNonNull(edgeWeight)));
+    }
+
+    protected AbstractPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final WeightOverlay<E> edgeWeights) {
+        this(graph, requireNonNull(edgeWeights)::snapshot);
+    }
+
+    private AbstractPathfinder(final Network<N, E> graph, final Supplier<? extends EdgeWeightFunction<E>> edgeWeights) {
         checkArgument(!requireNonNull(graph).allowsParallelEdges(),
                 "Graphs allowing parallel edges are not supported.");
         this.graph = graph;
-        this.edgeWeight = requireNonNull(edgeWeight);
+        this.edgeWeights = edgeWeights;
+        this.currentWeights = edgeWeights.get();
+    }
+
+    private static <E> Supplier<EdgeWeightFunction<E>> constantWeights(final ToDoubleFunction<E> edgeWeight) {
+        final EdgeWeightFunction<E> weights = (edge, time) -> edgeWeight.applyAsDouble(edge);
+        return () -> weights;
     }
 
     /**
@@ -35,14 +55,45 @@ abstract class AbstractPathfinder<N, E> implements Pathfinder<N> {
         return graph;
     }
 
+    @Override
+    public List<N> findPath(final N source, final N destination) {
+        return findPathResult(source, destination).toList();
+    }
+
+    @Override
+    public PathResult<N> findPathResult(final N source, final N destination) {
+        return findPathResult(source, destination, 0.0);
+    }
+
+    @Override
+    public abstract PathResult<N> findPathResult(N source, N destination, double departureTime);
+
+    @Override
+    public Map<N, PathResult<N>> findPathResults(final N source, final Set<N> destinations) {
+        return findPathResults(source, destinations, 0.0);
+    }
+
+    /**
+     * Fixes the edge weights and the departure time to be used until the end
+     * of the current search. Must be called at the beginning of each search.
+     *
+     * @param departureTime the time at which the search leaves its source node
+     */
+    protected void beginSearch(final double departureTime) {
+        this.currentWeights = edgeWeights.get();
+        this.departureTime = departureTime;
+    }
+
     /**
-     * Retrieves the given edge's weight by using the function
+     * Retrieves the given edge's weight by using the function or overlay
      * provided when this pathfinder was instantiated.
      *
      * @param edge the edge whose weight is to be retrieved
+     * @param elapsed the cost of the path from the source to the edge, which is
+     *                added to the departure time for evaluating time-dependent weights
      * @return the weight of the given edge.
      */
-    protected double weightOf(final E edge) {
-        return edgeWeight.applyAsDouble(edge);
+    protected double weightOf(final E edge, final double elapsed) {
+        return currentWeights.apply(edge, departureTime + elapsed);
     }
 }
@@ -0,0 +1,283 @@
+package com.github.graphextras.algorithms;
+
+import it.unimi.dsi.fastutil.Pair;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs batches of pathfinding queries concurrently on a shared graph.
+ * <p>
+ * Pathfinders keep some state between searches and are therefore not thread-safe:
+ * each running search borrows a pathfinder from a pool, which is filled on demand by
+ * the factory supplied at construction time and never holds more than {@code maxConcurrency}
+ * pathfinders. The graph must not be modified while a batch is being processed.
+ * </p>
+ * <p>
+ * Queries sharing the same source are grouped together and answered by a single
+ * call to {@link Pathfinder#findPathResults}, so that one search tree serves all of their
+ * destinations.
+ * </p>
+ * <p>
+ * Searches run on the given {@link Executor}, or on the common {@link ForkJoinPool}
+ * if none is given. On JDK 21 and later, virtual threads can be used by supplying
+ * {@code Executors.newVirtualThreadPerTaskExecutor()}. No more than {@code maxConcurrency}
+ * searches are run at the same time: further searches are queued, and handed to the
+ * executor as soon as one of the running searches completes.
+ * </p>
+ * <p>
+ * At most {@code maxQueued} searches wait in the queue. Once this limit is reached, further
+ * searches are not queued: the futures of their queries are completed exceptionally with a
+ * {@link RejectedExecutionException}, so that producers can slow down and submit them again.
+ * </p>
+ *
+ * @param <N> type of node
+ */
+public final class BatchPathfinder<N> {
+
+    private final Supplier<? extends Pathfinder<N>> pathfinderFactory;
+    /*
+     * Pathfinders which are not being used by any search.
+     */
+    private final Queue<Pathfinder<N>> idlePathfinders = new ConcurrentLinkedQueue<>();
+    /*
+     * Searches waiting for a permit.
+     */
+    private final Queue<Search> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Executor executor;
+    private final Semaphore permits;
+    private final int maxQueued;
+
+    /**
+     * Instantiates a new {@code BatchPathfinder} running its searches on the
+     * common {@link ForkJoinPool}, whose queue is unbounded.
+     *
+     * @param pathfinderFactory function for creating a new pathfinder on the shared graph
+     */
+    public BatchPathfinder(@Nonnull final Supplier<? extends Pathfinder<N>> pathfinderFactory) {
+        this(pathfinderFactory, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Instantiates a new {@code BatchPathfinder} whose queue is unbounded.
+     *
+     * @param pathfinderFactory function for creating a new pathfinder on the shared graph
+     * @param executor the executor on which the searches will be run
+     * @param maxConcurrency the maximum number of searches running at the same time
+     */
+    public BatchPathfinder(@Nonnull final Supplier<? extends Pathfinder<N>> pathfinderFactory,
+            @Nonnull final Executor executor, final int maxConcurrency) {
+        this(pathfinderFactory, executor, maxConcurrency, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Instantiates a new {@code BatchPathfinder}.
+     *
+     * @param pathfinderFactory function for creating a new pathfinder on the shared graph
+     * @param executor the executor on which the searches will be run
+     * @param maxConcurrency the maximum number of searches running at the same time
+     * @param maxQueued the maximum number of searches waiting for one of the running
+     *                  searches to complete
+     */
+    public BatchPathfinder(@Nonnull final Supplier<? extends Pathfinder<N>> pathfinderFactory,
+            @Nonnull final Executor executor, final int maxConcurrency, final int maxQueued) {
+        checkArgument(maxConcurrency > 0, "The maximum concurrency must be positive.");
+        checkArgument(maxQueued >= 0, "The maximum number of queued searches must not be negative.");
+        this.pathfinderFactory = requireNonNull(pathfinderFactory);
+        this.executor = requireNonNull(executor);
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Finds the shortest path for each of the given (source, destination) pairs and
+     * waits for all of them to be found.
+     *
+     * @param queries the (source, destination) pairs
+     * @return the results of the searches, in the same order as the given queries.
+     * Paths that cannot be found are represented by empty results.
+     * @throws CompletionException if a search fails, e.g. with a {@link RejectedExecutionException}
+     * because too many searches were queued
+     */
+    public List<PathResult<N>> findPaths(@Nonnull final Collection<? extends Pair<N, N>> queries) {
+        return join(findPathsAsync(queries));
+    }
+
+    /**
+     * Finds the shortest path for each of the given (source, destination) pairs, leaving
+     * each source at the given time, and waits for all of them to be found.
+     *
+     * @param queries the (source, destination) pairs
+     * @param departureTime the time at which the sources are left
+     * @return the results of the searches, in the same order as the given queries.
+     * Paths that cannot be found are represented by empty results.
+     * @see Pathfinder#findPathResult(Object, Object, double)
+     * @throws CompletionException if a search fails, e.g. with a {@link RejectedExecutionException}
+     * because too many searches were queued
+     */
+    public List<PathResult<N>> findPaths(@Nonnull final Collection<? extends Pair<N, N>> queries,
+            final double departureTime) {
+        return join(findPathsAsync(queries, departureTime));
+    }
+
+    private static <T> List<T> join(final List<CompletableFuture<T>> futures) {
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Submits the given (source, destination) pairs for processing, without waiting
+     * for any of the searches to start.
+     * <p>
+     * The returned futures complete independently of one another, as soon as
+     * the search serving their source is over.
+     * </p>
+     *
+     * @param queries the (source, destination) pairs
+     * @return futures for the results of the searches, in the same order as the given
+     * queries. Paths that cannot be found are represented by empty results, while the
+     * futures of searches rejected because the queue is full fail with a
+     * {@link RejectedExecutionException}.
+     */
+    public List<CompletableFuture<PathResult<N>>> findPathsAsync(
+            @Nonnull final Collection<? extends Pair<N, N>> queries) {
+        return findPathsAsync(queries, Pathfinder::findPathResults);
+    }
+
+    /**
+     * Submits the given (source, destination) pairs for processing, leaving each source at
+     * the given time, without waiting for any of the searches to start.
+     * <p>
+     * The returned futures complete independently of one another, as soon as
+     * the search serving their source is over.
+     * </p>
+     *
+     * @param queries the (source, destination) pairs
+     * @param departureTime the time at which the sources are left
+     * @return futures for the results of the searches, in the same order as the given
+     * queries. Paths that cannot be found are represented by empty results, while the
+     * futures of searches rejected because the queue is full fail with a
+     * {@link RejectedExecutionException}.
+     * @see Pathfinder#findPathResult(Object, Object, double)
+     */
+    public List<CompletableFuture<PathResult<N>>> findPathsAsync(
+            @Nonnull final Collection<? extends Pair<N, N>> queries, final double departureTime) {
+        return findPathsAsync(queries,
+                (pathfinder, source, destinations) -> pathfinder.findPathResults(source, destinations, departureTime));
+    }
+
+    private List<CompletableFuture<PathResult<N>>> findPathsAsync(final Collection<? extends Pair<N, N>> queries,
+            final GroupedQuery<N> groupedQuery) {
+        final Map<N, Set<N>> groups = new LinkedHashMap<>();
+        requireNonNull(queries).forEach(query ->
+            groups.computeIfAbsent(requireNonNull(query.left()), source -> new LinkedHashSet<>())
+                    .add(requireNonNull(query.right()))
+        );
+
+        final Map<N, CompletableFuture<Map<N, PathResult<N>>>> searches = new HashMap<>();
+        groups.forEach((source, destinations) -> searches.put(source, submit(source, destinations, groupedQuery)));
+        return queries.stream()
+                .map(query -> searches.get(query.left()).thenApply(paths -> paths.get(query.right())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Queues a search from the given source to all of the given destinations, or rejects it
+     * if the queue is full.
+     *
+     * @param source the source node
+     * @param destinations the destination nodes
+     * @param query the query to be run on the pathfinder
+     * @return a future for the results of the searches towards each destination
+     */
+    private CompletableFuture<Map<N, PathResult<N>>> submit(final N source, final Set<N> destinations,
+            final GroupedQuery<N> query) {
+        final Search search = new Search(source, destinations, query);
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            search.results.completeExceptionally(
+                    new RejectedExecutionException("Too many queued searches: " + maxQueued + "."));
+        } else {
+            pending.add(search);
+            dispatch();
+        }
+        return search.results;
+    }
+
+    /**
+     * Hands queued searches to the executor while permits are available. Called whenever
+     * a search is queued or completes, so that no queued search is left behind.
+     */
+    private void dispatch() {
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            final Search search = pending.poll();
+            if (search == null) {
+                permits.release();
+            } else {
+                queued.decrementAndGet();
+                try {
+                    executor.execute(search);
+                } catch (final RejectedExecutionException e) {
+                    permits.release();
+                    search.results.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Search from a source to a set of destinations, run on a borrowed pathfinder.
+     */
+    private final class Search implements Runnable {
+
+        private final N source;
+        private final Set<N> destinations;
+        private final GroupedQuery<N> query;
+        private final CompletableFuture<Map<N, PathResult<N>>> results = new CompletableFuture<>();
+
+        private Search(final N source, final Set<N> destinations, final GroupedQuery<N> query) {
+            this.source = source;
+            this.destinations = destinations;
+            this.query = query;
+        }
+
+        @Override
+        public void run() {
+            Pathfinder<N> pathfinder = idlePathfinders.poll();
+            try {
+                if (pathfinder == null) {
+                    pathfinder = pathfinderFactory.get();
+                }
+                results.complete(query.run(pathfinder, source, destinations));
+            } catch (final Throwable e) {
+                results.completeExceptionally(e);
+            } finally {
+                if (pathfinder != null) {
+                    idlePathfinders.add(pathfinder);
+                }
+                permits.release();
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Search from a source to several destinations, run on a given pathfinder.
+     *
+     * @param <N> type of node
+     */
+    @FunctionalInterface
+    private interface GroupedQuery<N> {
+
+        Map<N, PathResult<N>> run(Pathfinder<N> pathfinder, N source, Set<N> destinations);
+    }
+}
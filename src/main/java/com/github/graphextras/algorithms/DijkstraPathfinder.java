@@ -4,6 +4,8 @@ import com.google.common.graph.Network;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -16,7 +18,7 @@ import java.util.function.ToDoubleFunction;
  */
 public final class DijkstraPathfinder<N, E> implements Pathfinder<N> {
 
-    private final Pathfinder<N> aStar;
+    private final AStarPathfinder<N, E> aStar;
 
     /**
      * Instantiates a new {@code DijkstraPathfinder} object.
@@ -29,8 +31,39 @@ public final class DijkstraPathfinder<N, E> implements Pathfinder<N> {
         aStar = new AStarPathfinder<>(graph, edgeWeight, (s, t) -> 0.0);
     }
 
+    /**
+     * Instantiates a new {@code DijkstraPathfinder} object whose edge weights
+     * can be updated between searches.
+     *
+     * @param graph the graph on which the searches will be performed
+     * @param edgeWeights the weights of the given graph's edges
+     */
+    public DijkstraPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final WeightOverlay<E> edgeWeights) {
+        aStar = new AStarPathfinder<>(graph, edgeWeights, (s, t) -> 0.0);
+    }
+
     @Override
     public List<N> findPath(N source, N destination) {
         return aStar.findPath(source, destination);
     }
+
+    @Override
+    public PathResult<N> findPathResult(N source, N destination) {
+        return aStar.findPathResult(source, destination);
+    }
+
+    @Override
+    public PathResult<N> findPathResult(N source, N destination, double departureTime) {
+        return aStar.findPathResult(source, destination, departureTime);
+    }
+
+    @Override
+    public Map<N, PathResult<N>> findPathResults(N source, Set<N> destinations) {
+        return aStar.findPathResults(source, destinations);
+    }
+
+    @Override
+    public Map<N, PathResult<N>> findPathResults(N source, Set<N> destinations, double departureTime) {
+        return aStar.findPathResults(source, destinations, departureTime);
+    }
 }
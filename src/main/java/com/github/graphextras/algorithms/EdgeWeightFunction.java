@@ -0,0 +1,19 @@
+package com.github.graphextras.algorithms;
+
+/**
+ * Functional interface for modelling edge weights which may vary over time.
+ *
+ * @param <E> type of edge
+ */
+@FunctionalInterface
+public interface EdgeWeightFunction<E> {
+
+    /**
+     * Applies this function to the given edge.
+     *
+     * @param edge the edge
+     * @param time the time at which the edge is entered
+     * @return the weight of the given edge at the given time.
+     */
+    double apply(E edge, double time);
+}
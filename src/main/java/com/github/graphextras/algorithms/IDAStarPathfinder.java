@@ -38,8 +38,24 @@ public final class IDAStarPathfinder<N, E> extends AbstractHeuristicPathfinder<N
         super(graph, edgeWeight, heuristicFunc);
     }
 
+    /**
+     * Instantiates a new {@code IDAStarPathfinder} whose edge weights
+     * can be updated between searches.
+     *
+     * @param graph the graph on which the searches will be performed.
+     * @param edgeWeights the weights of the given graph's edges
+     * @param heuristicFunc function for estimating the distance between a
+     *                      node and the destination.
+     */
+    public IDAStarPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final WeightOverlay<E> edgeWeights,
+            @Nonnull final HeuristicFunction<N> heuristicFunc) {
+        super(graph, edgeWeights, heuristicFunc);
+    }
+
     @Override
-    public List<N> findPath(@Nonnull final N source, @Nonnull final N destination) {
+    public PathResult<N> findPathResult(@Nonnull final N source, @Nonnull final N destination,
+            final double departureTime) {
+        beginSearch(departureTime);
         final Deque<N> path = new ArrayDeque<>();
         double threshold = heuristic(source, destination);
 
@@ -47,10 +63,28 @@ public final class IDAStarPathfinder<N, E> extends AbstractHeuristicPathfinder<N
         do {
             threshold = idaSearch(path, destination, 0.0, threshold);
             if (threshold == FOUND) {
-                return new ArrayList<>(path);
+                return PathResult.ofNodes(new ArrayList<>(path), costOf(path));
             }
         } while (threshold < Double.MAX_VALUE);
-        return Collections.emptyList();
+        return PathResult.empty();
+    }
+
+    /**
+     * Computes the total cost of the given path.
+     *
+     * @param path the path whose cost is to be computed
+     * @return the sum of the weights of the edges traversed by the given path.
+     */
+    private double costOf(final Deque<N> path) {
+        double cost = 0.0;
+        N previous = null;
+        for (final N node : path) {
+            if (previous != null) {
+                cost += weightOf(getGraph().edgeConnecting(previous, node).orElseThrow(), cost);
+            }
+            previous = node;
+        }
+        return cost;
     }
 
     /**
@@ -82,7 +116,8 @@ public final class IDAStarPathfinder<N, E> extends AbstractHeuristicPathfinder<N
                     double pathCost = idaSearch(
                             path,
                             destination,
-                            currentDepth + weightOf(getGraph().edgeConnecting(current, successor).orElseThrow()),
+                            currentDepth + weightOf(
+                                    getGraph().edgeConnecting(current, successor).orElseThrow(), currentDepth),
                             threshold
                     );
                     if (pathCost == FOUND) {
@@ -0,0 +1,118 @@
+package com.github.graphextras.algorithms;
+
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of integers in the range {@code [0, capacity)}, which keeps track
+ * of the position of each element so that it can be removed or repositioned
+ * in logarithmic time.
+ * <br>
+ * Elements are ordered by the given comparator, which usually looks up their
+ * keys in some primitive array: whenever a key changes, {@link #update(int)} must
+ * be called on the corresponding element.
+ */
+final class IndexedIntHeap {
+
+    private final IntComparator comparator;
+    private final int[] heap;
+    /*
+     * Position of each element in the heap, or -1 if the element is absent.
+     */
+    private final int[] positions;
+    private int size;
+
+    IndexedIntHeap(final int capacity, final IntComparator comparator) {
+        this.comparator = comparator;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(final int element) {
+        return positions[element] >= 0;
+    }
+
+    /**
+     * Returns the first element according to the comparator, without removing it.
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Inserts the given element, or repositions it if it is already present.
+     */
+    void update(final int element) {
+        if (contains(element)) {
+            siftDown(siftUp(positions[element]));
+        } else {
+            heap[size] = element;
+            positions[element] = size;
+            siftUp(size++);
+        }
+    }
+
+    void remove(final int element) {
+        final int position = positions[element];
+        if (position < 0) {
+            return;
+        }
+        positions[element] = -1;
+        size--;
+        if (position < size) {
+            heap[position] = heap[size];
+            positions[heap[position]] = position;
+            siftDown(siftUp(position));
+        }
+    }
+
+    private int siftUp(int position) {
+        final int element = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (comparator.compare(element, heap[parent]) >= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = element;
+        positions[element] = position;
+        return position;
+    }
+
+    private void siftDown(int position) {
+        final int element = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (comparator.compare(heap[child], element) >= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = element;
+        positions[element] = position;
+    }
+}
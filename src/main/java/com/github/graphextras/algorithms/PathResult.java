@@ -0,0 +1,133 @@
+package com.github.graphextras.algorithms;
+
+import com.google.common.graph.Network;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The outcome of a search performed by a {@link Pathfinder}.
+ * <p>
+ * Carries the total cost of the path found, if any, along with the nodes forming it.
+ * The nodes are copied out of the search state into an array of exactly the length of
+ * the path when the result is created, so results never hold on to the search state
+ * and remain valid once the pathfinder starts another search.
+ * </p>
+ *
+ * @param <N> type of node
+ */
+public final class PathResult<N> {
+
+    private static final PathResult<?> EMPTY = new PathResult<>(Collections.emptyList(), Double.POSITIVE_INFINITY);
+
+    private final List<N> nodes;
+    private final double cost;
+
+    private PathResult(final List<N> nodes, final double cost) {
+        this.nodes = nodes;
+        this.cost = cost;
+    }
+
+    /**
+     * Returns a result representing a path that could not be found.
+     *
+     * @param <N> type of node
+     * @return an empty result.
+     */
+    @SuppressWarnings("unchecked")
+    static <N> PathResult<N> empty() {
+        return (PathResult<N>) EMPTY;
+    }
+
+    /**
+     * Creates a result by walking the given parents tree from destination to source.
+     * The tree may be modified or cleared afterwards.
+     *
+     * @param parents the parents tree, in which the source is its own parent
+     * @param destination the destination node
+     * @param cost the total cost of the path
+     * @param <N> type of node
+     * @return a result holding the path from source to destination.
+     */
+    static <N> PathResult<N> ofParents(@Nonnull final Map<N, N> parents, @Nonnull final N destination,
+            final double cost) {
+        final List<N> nodes = Pathfinders.reconstructPath(requireNonNull(parents), requireNonNull(destination));
+        return nodes.isEmpty() ? empty() : new PathResult<>(nodes, cost);
+    }
+
+    /**
+     * Creates a result from an already materialized path.
+     *
+     * @param nodes the nodes forming the path from source to destination
+     * @param cost the total cost of the path
+     * @param <N> type of node
+     * @return a result backed by the given path.
+     */
+    static <N> PathResult<N> ofNodes(@Nonnull final List<N> nodes, final double cost) {
+        return requireNonNull(nodes).isEmpty() ? empty() : new PathResult<>(Collections.unmodifiableList(nodes), cost);
+    }
+
+    /**
+     * Tells whether no path was found.
+     *
+     * @return {@code true} if no path was found, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Returns the total cost of the path, i.e. the sum of the weights of its edges.
+     *
+     * @return the total cost of the path, {@link Double#POSITIVE_INFINITY} if no path was found, or
+     * {@link Double#NaN} if the pathfinder which found it does not compute costs.
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the first node to be visited after leaving the source.
+     *
+     * @return the node following the source, or an empty {@link Optional} if no path was found
+     * or if the source is also the destination.
+     */
+    public Optional<N> getFirstHop() {
+        return nodes.size() > 1 ? Optional.of(nodes.get(1)) : Optional.empty();
+    }
+
+    /**
+     * Returns the edges traversed by the path, in order.
+     *
+     * @param graph the graph on which the search was performed
+     * @param <E> type of edge
+     * @return the edges traversed by the path from source to destination.
+     * If no path was found or the source is also the destination, an empty list will be returned.
+     */
+    public <E> List<E> edges(@Nonnull final Network<N, E> graph) {
+        requireNonNull(graph);
+        final List<N> path = toList();
+        final List<E> edges = new ArrayList<>(Math.max(path.size() - 1, 0));
+        for (int i = 1; i < path.size(); i++) {
+            edges.add(graph.edgeConnecting(path.get(i - 1), path.get(i)).orElseThrow());
+        }
+        return edges;
+    }
+
+    /**
+     * Returns the nodes forming the path.
+     *
+     * @return an unmodifiable list of nodes representing the path from source to destination.
+     * If no path was found, an empty list will be returned.
+     */
+    public List<N> toList() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "PathResult[]" : "PathResult[cost=" + cost + ", path=" + toList() + "]";
+    }
+}
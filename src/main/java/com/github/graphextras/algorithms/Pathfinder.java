@@ -2,7 +2,11 @@ package com.github.graphextras.algorithms;
 
 import com.google.common.graph.Network;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Models algorithms for finding shortest paths on Google Guava's {@link Network}s.
@@ -20,4 +24,87 @@ public interface Pathfinder<N> {
      * If no path is found, an empty list will be returned.
      */
     List<N> findPath(N source, N destination);
+
+    /**
+     * Finds the shortest path from a given source node to a given destination,
+     * along with its total cost. The path is copied out of the search state into an
+     * array of exactly its length, so the result remains valid after later searches.
+     * <br>
+     * The default implementation wraps the path returned by {@link #findPath(Object, Object)},
+     * whose cost is unknown and reported as {@link Double#NaN}.
+     *
+     * @param source the starting node
+     * @param destination the destination node
+     * @return the result of the search. If no path is found, an empty result will be returned.
+     */
+    default PathResult<N> findPathResult(N source, N destination) {
+        return PathResult.ofNodes(findPath(source, destination), Double.NaN);
+    }
+
+    /**
+     * Finds the shortest path from a given source node to a given destination, leaving
+     * the source at the given time. The departure time only affects edges whose weights
+     * depend on time (see {@link WeightOverlay}).
+     * <br>
+     * The default implementation ignores the departure time, which is only correct for
+     * pathfinders whose edge weights do not depend on time.
+     *
+     * @param source the starting node
+     * @param destination the destination node
+     * @param departureTime the time at which the source is left
+     * @return the result of the search. If no path is found, an empty result will be returned.
+     */
+    default PathResult<N> findPathResult(N source, N destination, double departureTime) {
+        return findPathResult(source, destination);
+    }
+
+    /**
+     * Finds the shortest paths from a given source node to each of the given destinations.
+     *
+     * @param source the starting node
+     * @param destinations the destination nodes
+     * @return a map associating each destination with the path from source to that destination.
+     * Destinations that cannot be reached will be associated with an empty list.
+     */
+    default Map<N, List<N>> findPaths(N source, Set<N> destinations) {
+        return findPathResults(source, destinations).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toList()));
+    }
+
+    /**
+     * Finds the shortest paths from a given source node to each of the given destinations,
+     * along with their total costs.
+     * <br>
+     * The default implementation performs a separate search for each destination.
+     *
+     * @param source the starting node
+     * @param destinations the destination nodes
+     * @return a map associating each destination with the result of the search from source
+     * to that destination. Destinations that cannot be reached will be associated with an empty result.
+     */
+    default Map<N, PathResult<N>> findPathResults(N source, Set<N> destinations) {
+        final Map<N, PathResult<N>> paths = new HashMap<>();
+        destinations.forEach(destination -> paths.put(destination, findPathResult(source, destination)));
+        return paths;
+    }
+
+    /**
+     * Finds the shortest paths from a given source node to each of the given destinations,
+     * leaving the source at the given time.
+     * <br>
+     * The default implementation performs a separate search for each destination.
+     *
+     * @param source the starting node
+     * @param destinations the destination nodes
+     * @param departureTime the time at which the source is left
+     * @return a map associating each destination with the result of the search from source
+     * to that destination. Destinations that cannot be reached will be associated with an empty result.
+     * @see #findPathResult(Object, Object, double)
+     */
+    default Map<N, PathResult<N>> findPathResults(N source, Set<N> destinations, double departureTime) {
+        final Map<N, PathResult<N>> paths = new HashMap<>();
+        destinations.forEach(destination ->
+                paths.put(destination, findPathResult(source, destination, departureTime)));
+        return paths;
+    }
 }
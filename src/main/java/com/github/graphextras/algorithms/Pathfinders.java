@@ -1,7 +1,7 @@
 package com.github.graphextras.algorithms;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -20,19 +20,32 @@ final class Pathfinders {
      *
      * @param parents the parents tree
      * @param target the destination node
-     * @return the path from source to destination
+     * @return an unmodifiable list representing the path from source to destination
      */
     public static <N> List<N> reconstructPath(@Nonnull final Map<N, N> parents, @Nonnull final N target) {
         if (parents.get(target) == null) {
             return Collections.emptyList();
         }
-        List<N> path = new ArrayList<>(List.of(target));
-        N parent = parents.get(target);
-        while (!parent.equals(path.get(path.size() - 1))) {
-            path.add(parent);
-            parent = parents.get(parent);
+        /*
+         * Measure the path first, so that it can be filled backwards
+         * into an array of the right size.
+         */
+        int length = 1;
+        N node = target;
+        N parent = parents.get(node);
+        while (!parent.equals(node)) {
+            length++;
+            node = parent;
+            parent = parents.get(node);
         }
-        Collections.reverse(path);
-        return path;
+
+        @SuppressWarnings("unchecked")
+        final N[] path = (N[]) new Object[length];
+        node = target;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = node;
+            node = parents.get(node);
+        }
+        return Collections.unmodifiableList(Arrays.asList(path));
     }
 }
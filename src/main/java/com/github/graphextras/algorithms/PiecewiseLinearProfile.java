@@ -0,0 +1,75 @@
+package com.github.graphextras.algorithms;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable piecewise linear function of time, used for modelling
+ * time-dependent edge weights.
+ * <p>
+ * The profile is defined by a set of breakpoints: values between two breakpoints are
+ * linearly interpolated, while values before the first breakpoint or after the last one
+ * are equal to those of the first and the last breakpoint respectively.
+ * </p>
+ * <p>
+ * Shortest paths remain optimal as long as profiles satisfy the FIFO property, i.e.
+ * entering an edge later never makes one leave it earlier: the slope of the
+ * profile must never be lower than {@code -1}, which is checked upon construction.
+ * </p>
+ */
+public final class PiecewiseLinearProfile {
+
+    private final double[] times;
+    private final double[] values;
+
+    /**
+     * Instantiates a new {@code PiecewiseLinearProfile} from the given breakpoints.
+     *
+     * @param times the times of the breakpoints, in strictly increasing order
+     * @param values the values of the profile at each breakpoint
+     * @throws IllegalArgumentException if the times are not strictly increasing, or if
+     * the slope between two breakpoints is lower than {@code -1}
+     */
+    public PiecewiseLinearProfile(@Nonnull final double[] times, @Nonnull final double[] values) {
+        checkArgument(requireNonNull(times).length == requireNonNull(values).length,
+                "Times and values must have the same length.");
+        checkArgument(times.length > 0, "At least one breakpoint must be supplied.");
+        for (int i = 1; i < times.length; i++) {
+            checkArgument(times[i] > times[i - 1], "Times must be strictly increasing.");
+            /*
+             * Equivalent to a slope of at least -1: leaving later never means arriving earlier.
+             */
+            checkArgument(times[i] + values[i] >= times[i - 1] + values[i - 1],
+                    "The slope of the profile must not be lower than -1.");
+        }
+        this.times = times.clone();
+        this.values = values.clone();
+    }
+
+    /**
+     * Evaluates this profile at the given time.
+     *
+     * @param time the time
+     * @return the value of this profile at the given time.
+     */
+    public double valueAt(final double time) {
+        final int last = times.length - 1;
+        if (time <= times[0]) {
+            return values[0];
+        }
+        if (time >= times[last]) {
+            return values[last];
+        }
+        final int index = Arrays.binarySearch(times, time);
+        if (index >= 0) {
+            return values[index];
+        }
+        final int next = -index - 1;
+        final int previous = next - 1;
+        final double ratio = (time - times[previous]) / (times[next] - times[previous]);
+        return values[previous] + ratio * (values[next] - values[previous]);
+    }
+}
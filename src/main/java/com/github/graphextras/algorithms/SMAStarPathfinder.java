@@ -0,0 +1,492 @@
+package com.github.graphextras.algorithms;
+
+import com.google.common.graph.Network;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implements the Simplified Memory-bounded A* algorithm.
+ * <br>
+ * See {@link Heuristics} for a set of predefined heuristic functions.
+ * <p>
+ * The search tree never holds more than a fixed number of nodes. When it is full,
+ * the leaves with the highest estimated cost are forgotten, and their cost is backed
+ * up into their parents so that they can be regenerated only if they become promising
+ * again. Unlike {@link IDAStarPathfinder}, which has to explore the whole tree again at
+ * every iteration, only the forgotten branches are ever explored twice.
+ * </p>
+ * <p>
+ * The shortest path is found whenever it is made of at most {@code maxNodes} nodes.
+ * Otherwise, the best path that fits in memory is returned, if any: an empty result
+ * only means that no path of at most {@code maxNodes} nodes was found, not that the
+ * destination cannot be reached. Please note that, if the destination cannot be reached
+ * and {@code maxNodes} is lower than the number of nodes reachable from the source,
+ * the search may take a long time before giving up.
+ * </p>
+ *
+ * @param <N> type of node
+ * @param <E> type of edge
+ */
+public final class SMAStarPathfinder<N, E> extends AbstractHeuristicPathfinder<N, E> {
+
+    private static final double INFINITY = Double.POSITIVE_INFINITY;
+    private static final int NONE = -1;
+
+    private final SearchTree tree;
+
+    /**
+     * Instantiates a new {@code SMAStarPathfinder} with the given
+     * heuristic function.
+     *
+     * @param graph the graph on which the searches will be performed.
+     * @param edgeWeight function for extracting the weights of the given
+     *                   graph's edges
+     * @param heuristicFunc function for estimating the distance between a
+     *                      node and the destination.
+     * @param maxNodes the maximum number of nodes held in memory by a search
+     */
+    public SMAStarPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final ToDoubleFunction<E> edgeWeight,
+            @Nonnull final HeuristicFunction<N> heuristicFunc, final int maxNodes) {
+        super(graph, edgeWeight, heuristicFunc);
+        this.tree = new SearchTree(maxNodes);
+    }
+
+    /**
+     * Instantiates a new {@code SMAStarPathfinder} whose edge weights
+     * can be updated between searches.
+     *
+     * @param graph the graph on which the searches will be performed.
+     * @param edgeWeights the weights of the given graph's edges
+     * @param heuristicFunc function for estimating the distance between a
+     *                      node and the destination.
+     * @param maxNodes the maximum number of nodes held in memory by a search
+     */
+    public SMAStarPathfinder(@Nonnull final Network<N, E> graph, @Nonnull final WeightOverlay<E> edgeWeights,
+            @Nonnull final HeuristicFunction<N> heuristicFunc, final int maxNodes) {
+        super(graph, edgeWeights, heuristicFunc);
+        this.tree = new SearchTree(maxNodes);
+    }
+
+    @Override
+    public PathResult<N> findPathResult(@Nonnull final N source, @Nonnull final N destination,
+            final double departureTime) {
+        return tree.search(requireNonNull(source), requireNonNull(destination), departureTime);
+    }
+
+    /**
+     * Search tree holding at most a fixed number of nodes. Nodes are stored in
+     * slots, each of which owns an index in the following arrays.
+     */
+    private final class SearchTree {
+
+        private final int maxNodes;
+
+        private final Object[] states;
+        private final int[] parents;
+        private final int[] depths;
+        /*
+         * Index of each node among the successors of its parent.
+         */
+        private final int[] successorIndices;
+        private final double[] gScores;
+        /*
+         * Backed-up fScores: lower bounds for the cost of any path going
+         * through each node.
+         */
+        private final double[] fScores;
+        /*
+         * Lower bounds for the fScores of the successors which have not been
+         * generated yet.
+         */
+        private final double[] estimates;
+        /*
+         * Successors of each node, filled when the node is first expanded.
+         */
+        private final Object[][] successors;
+        /*
+         * Number of successors generated at least once.
+         */
+        private final int[] generated;
+        /*
+         * For each generated successor: its slot if it is in memory, NONE otherwise.
+         */
+        private final int[][] childSlots;
+        /*
+         * For each generated successor which is not in memory: its last known fScore.
+         */
+        private final double[][] forgottenScores;
+        private final int[] childCounts;
+        /*
+         * Whether any path below each node has been discarded because it could not fit in memory.
+         */
+        private final boolean[] truncated;
+        /*
+         * Key with which each node is ordered in the open set: the lowest fScore among
+         * the successors that still need to be generated.
+         */
+        private final double[] openKeys;
+
+        /*
+         * Open set. Nodes are ordered by their key, deepest first.
+         */
+        private final IndexedIntHeap fringe;
+        /*
+         * Nodes without children in memory, except for the root. Nodes are ordered
+         * by their fScore, highest and shallowest first.
+         */
+        private final IndexedIntHeap leaves;
+        private final IntArrayList freeSlots;
+        /*
+         * Slot of the copy of each state in memory with the lowest gScore, ties being
+         * broken by the lowest depth.
+         */
+        private final Object2IntMap<N> bestSlots = new Object2IntOpenHashMap<>();
+
+        private SearchTree(final int maxNodes) {
+            checkArgument(maxNodes > 0, "The maximum number of nodes must be positive.");
+            this.maxNodes = maxNodes;
+            states = new Object[maxNodes];
+            parents = new int[maxNodes];
+            depths = new int[maxNodes];
+            successorIndices = new int[maxNodes];
+            gScores = new double[maxNodes];
+            fScores = new double[maxNodes];
+            estimates = new double[maxNodes];
+            successors = new Object[maxNodes][];
+            generated = new int[maxNodes];
+            childSlots = new int[maxNodes][];
+            forgottenScores = new double[maxNodes][];
+            childCounts = new int[maxNodes];
+            truncated = new boolean[maxNodes];
+            openKeys = new double[maxNodes];
+            fringe = new IndexedIntHeap(maxNodes, (a, b) -> {
+                final int byKey = Double.compare(openKeys[a], openKeys[b]);
+                return byKey != 0 ? byKey : Integer.compare(depths[b], depths[a]);
+            });
+            leaves = new IndexedIntHeap(maxNodes, (a, b) -> {
+                final int byScore = Double.compare(fScores[b], fScores[a]);
+                return byScore != 0 ? byScore : Integer.compare(depths[a], depths[b]);
+            });
+            freeSlots = new IntArrayList(maxNodes);
+            bestSlots.defaultReturnValue(NONE);
+        }
+
+        /**
+         * Clears the search tree left by the previous search.
+         *
+         * @param departureTime the time at which the search leaves its source node
+         */
+        private void initialize(final double departureTime) {
+            beginSearch(departureTime);
+            fringe.clear();
+            leaves.clear();
+            freeSlots.clear();
+            bestSlots.clear();
+            for (int slot = maxNodes - 1; slot >= 0; slot--) {
+                release(slot);
+                freeSlots.add(slot);
+            }
+        }
+
+        /**
+         * Searches for the shortest path from source to destination.
+         *
+         * @param source the source node
+         * @param destination the destination node
+         * @param departureTime the time at which the source is left
+         * @return the result of the search
+         */
+        private PathResult<N> search(final N source, final N destination, final double departureTime) {
+            initialize(departureTime);
+
+            final int root = allocate(source, NONE, NONE, 0.0, heuristic(source, destination));
+            bestSlots.put(source, root);
+            fringe.update(root);
+
+            while (!fringe.isEmpty()) {
+                final int best = fringe.peek();
+                if (stateOf(best).equals(destination)) {
+                    return pathTo(best);
+                }
+                expand(best, destination);
+            }
+            return PathResult.empty();
+        }
+
+        /**
+         * Generates the most promising successor of the given node which is not in memory.
+         *
+         * @param node the node to expand
+         * @param destination the destination node
+         */
+        private void expand(final int node, final N destination) {
+            if (successors[node] == null) {
+                final Object[] nodeSuccessors = getGraph().successors(stateOf(node)).toArray();
+                successors[node] = nodeSuccessors;
+                childSlots[node] = new int[nodeSuccessors.length];
+                forgottenScores[node] = new double[nodeSuccessors.length];
+            }
+
+            final int forgotten = bestForgotten(node);
+            if (generated[node] == successors[node].length && forgotten == NONE) {
+                /*
+                 * Dead end.
+                 */
+                backUp(node);
+                return;
+            }
+
+            final int index;
+            final double lowerBound;
+            if (generated[node] < successors[node].length
+                    && (forgotten == NONE || estimates[node] <= forgottenScores[node][forgotten])) {
+                index = generated[node]++;
+                lowerBound = estimates[node];
+            } else {
+                index = forgotten;
+                lowerBound = forgottenScores[node][forgotten];
+            }
+            childSlots[node][index] = NONE;
+            forgottenScores[node][index] = INFINITY;
+
+            @SuppressWarnings("unchecked")
+            final N successor = (N) successors[node][index];
+            final int depth = depths[node] + 1;
+            final boolean isDestination = successor.equals(destination);
+            if (isAncestor(successor, node)) {
+                backUp(node);
+                return;
+            }
+            if (depth >= maxNodes || (depth == maxNodes - 1 && !isDestination)) {
+                /*
+                 * A path which cannot fit in memory.
+                 */
+                for (int ancestor = node; ancestor != NONE && !truncated[ancestor]; ancestor = parents[ancestor]) {
+                    truncated[ancestor] = true;
+                }
+                backUp(node);
+                return;
+            }
+
+            final double gScore = gScores[node]
+                    + weightOf(getGraph().edgeConnecting(stateOf(node), successor).orElseThrow(), gScores[node]);
+            final double fScore = Math.max(lowerBound, gScore + heuristic(successor, destination));
+            final int existing = bestSlots.getInt(successor);
+            if (existing != NONE && dominates(existing, gScore, depth)) {
+                if (depths[existing] <= depth || fScores[existing] == INFINITY) {
+                    /*
+                     * Already reached through a path which is neither longer nor deeper,
+                     * or which has been fully explored.
+                     */
+                    backUp(node);
+                    return;
+                }
+                /*
+                 * Already reached through a shorter but deeper path, which might still be
+                 * forgotten or turn out to be too deep to reach the destination within the
+                 * memory limit. The successor is rather remembered as forgotten, so that it
+                 * is regenerated only once the search has gone past the fScore of the other
+                 * copy. If that does not raise its score, it is generated right away, so that
+                 * the search keeps making progress.
+                 */
+                final double deferred = Math.max(fScore, fScores[existing]);
+                if (deferred > lowerBound) {
+                    forgottenScores[node][index] = deferred;
+                    backUp(node);
+                    return;
+                }
+            } else if (existing != NONE && childCounts[existing] == 0 && parents[existing] != NONE) {
+                prune(existing, fScores[existing]);
+            }
+            if (freeSlots.isEmpty()) {
+                /*
+                 * The node being expanded must not be pruned, even if it is a leaf.
+                 */
+                final boolean isLeaf = leaves.contains(node);
+                leaves.remove(node);
+                final int leaf = leaves.peek();
+                prune(leaf, fScores[leaf]);
+                if (isLeaf) {
+                    leaves.update(node);
+                }
+            }
+
+            final int child = allocate(successor, node, index, gScore, fScore);
+            final int best = bestSlots.getInt(successor);
+            if (best == NONE || !dominates(best, gScore, depth)) {
+                bestSlots.put(successor, child);
+            }
+            childSlots[node][index] = child;
+            childCounts[node]++;
+            leaves.remove(node);
+            leaves.update(child);
+            updateOpenKey(child);
+            backUp(node);
+        }
+
+        /**
+         * Forgets the given leaf, backing up the given score into its parent.
+         *
+         * @param leaf the leaf to forget
+         * @param fScore the score to be remembered by the parent
+         */
+        private void prune(final int leaf, final double fScore) {
+            final int parent = parents[leaf];
+            forgottenScores[parent][successorIndices[leaf]] = fScore;
+            childSlots[parent][successorIndices[leaf]] = NONE;
+            childCounts[parent]--;
+            fringe.remove(leaf);
+            leaves.remove(leaf);
+            release(leaf);
+            freeSlots.add(leaf);
+
+            if (childCounts[parent] == 0 && parents[parent] != NONE) {
+                leaves.update(parent);
+            }
+            backUp(parent);
+        }
+
+        /**
+         * Recomputes the fScore of the given node from its successors, and propagates
+         * the change to its ancestors.
+         *
+         * @param node the node whose fScore is to be recomputed
+         */
+        private void backUp(int node) {
+            while (node != NONE) {
+                updateOpenKey(node);
+                double fScore = openKeys[node];
+                if (successors[node] != null) {
+                    for (int index = 0; index < generated[node]; index++) {
+                        if (childSlots[node][index] != NONE) {
+                            fScore = Math.min(fScore, fScores[childSlots[node][index]]);
+                        }
+                    }
+                }
+                if (fScore == fScores[node]) {
+                    return;
+                }
+                fScores[node] = fScore;
+                if (leaves.contains(node)) {
+                    leaves.update(node);
+                }
+                node = parents[node];
+            }
+        }
+
+        /**
+         * Recomputes the key of the given node, adding it to or removing it from the
+         * open set depending on whether any of its successors still needs to be generated.
+         *
+         * @param node the node whose key is to be recomputed
+         */
+        private void updateOpenKey(final int node) {
+            double key = estimates[node];
+            if (successors[node] != null) {
+                final int forgotten = bestForgotten(node);
+                key = generated[node] < successors[node].length ? estimates[node] : INFINITY;
+                if (forgotten != NONE) {
+                    key = Math.min(key, forgottenScores[node][forgotten]);
+                }
+            }
+            openKeys[node] = key;
+            if (key < INFINITY) {
+                fringe.update(node);
+            } else {
+                fringe.remove(node);
+            }
+        }
+
+        /**
+         * Finds the forgotten successor of the given node with the lowest fScore.
+         *
+         * @param node the node
+         * @return the index of the successor, or {@code NONE} if no successor can be regenerated.
+         */
+        private int bestForgotten(final int node) {
+            int best = NONE;
+            for (int index = 0; index < generated[node]; index++) {
+                if (childSlots[node][index] == NONE && forgottenScores[node][index] < INFINITY
+                        && (best == NONE || forgottenScores[node][index] < forgottenScores[node][best])) {
+                    best = index;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Tells whether the given node reaches its state with either a lower gScore, or the same
+         * gScore and no more depth than the given ones, unless it turned out to be a dead end only
+         * because of the memory limit.
+         */
+        private boolean dominates(final int slot, final double gScore, final int depth) {
+            return (fScores[slot] < INFINITY || !truncated[slot])
+                    && (gScores[slot] < gScore || (gScores[slot] == gScore && depths[slot] <= depth));
+        }
+
+        /**
+         * Tells whether the given state lies on the path from the root to the given node.
+         */
+        private boolean isAncestor(final N state, int node) {
+            while (node != NONE) {
+                if (states[node].equals(state)) {
+                    return true;
+                }
+                node = parents[node];
+            }
+            return false;
+        }
+
+        private int allocate(final N state, final int parent, final int index, final double gScore,
+                final double fScore) {
+            final int slot = freeSlots.popInt();
+            states[slot] = state;
+            parents[slot] = parent;
+            depths[slot] = parent == NONE ? 0 : depths[parent] + 1;
+            successorIndices[slot] = index;
+            gScores[slot] = gScore;
+            fScores[slot] = fScore;
+            estimates[slot] = fScore;
+            openKeys[slot] = fScore;
+            return slot;
+        }
+
+        private void release(final int slot) {
+            if (states[slot] != null && bestSlots.getInt(states[slot]) == slot) {
+                bestSlots.removeInt(states[slot]);
+            }
+            states[slot] = null;
+            successors[slot] = null;
+            childSlots[slot] = null;
+            forgottenScores[slot] = null;
+            generated[slot] = 0;
+            childCounts[slot] = 0;
+            truncated[slot] = false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private N stateOf(final int slot) {
+            return (N) states[slot];
+        }
+
+        /**
+         * Builds the path from the root of the search tree to the given node.
+         */
+        private PathResult<N> pathTo(final int node) {
+            @SuppressWarnings("unchecked")
+            final N[] path = (N[]) new Object[depths[node] + 1];
+            for (int slot = node; slot != NONE; slot = parents[slot]) {
+                path[depths[slot]] = stateOf(slot);
+            }
+            return PathResult.ofNodes(Arrays.asList(path), gScores[node]);
+        }
+    }
+}
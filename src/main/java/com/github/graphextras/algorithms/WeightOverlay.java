@@ -0,0 +1,220 @@
+package com.github.graphextras.algorithms;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Edge weights which can be updated while searches are running.
+ * <p>
+ * Edges are mapped to consecutive indices by a function supplied at construction time,
+ * and their weights are kept in primitive arrays. Updates never modify the weights seen by
+ * running searches: they copy the affected portions of the arrays and then publish a new
+ * {@link Snapshot}, tagged with an increasing epoch number. Pathfinders instantiated with
+ * an overlay take a snapshot at the beginning of each search and use it until the end.
+ * </p>
+ * <p>
+ * Each update pays for copying the pages it touches, or the whole set of profiles, so
+ * frequent changes should be grouped with {@link #setWeights(int[], double[])} and
+ * {@link #setProfiles(int[], PiecewiseLinearProfile[])}. Updates are serialized, while
+ * taking a snapshot never blocks.
+ * </p>
+ * <p>
+ * Edges may also be given a {@link PiecewiseLinearProfile}, which overrides their weight
+ * and is evaluated at the time the edge is entered.
+ * </p>
+ *
+ * @param <E> type of edge
+ */
+public final class WeightOverlay<E> {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final ToIntFunction<E> edgeIndex;
+    private final int size;
+    private volatile Snapshot<E> current;
+
+    /**
+     * Instantiates a new {@code WeightOverlay} object.
+     *
+     * @param edgeIndex function mapping each edge to its index, between {@code 0}
+     *                  (inclusive) and the number of weights (exclusive)
+     * @param weights the initial weight of each edge
+     */
+    public WeightOverlay(@Nonnull final ToIntFunction<E> edgeIndex, @Nonnull final double[] weights) {
+        this.edgeIndex = requireNonNull(edgeIndex);
+        this.size = requireNonNull(weights).length;
+
+        final double[][] pages = new double[(size + PAGE_SIZE - 1) >>> PAGE_SHIFT][];
+        for (int page = 0; page < pages.length; page++) {
+            final int start = page << PAGE_SHIFT;
+            pages[page] = Arrays.copyOfRange(weights, start, Math.min(size, start + PAGE_SIZE));
+        }
+        this.current = new Snapshot<>(this, 0, pages, Int2ObjectMaps.emptyMap());
+    }
+
+    /**
+     * Returns the number of edges whose weights are held by this overlay.
+     *
+     * @return the number of edges.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the latest weights. The returned snapshot will not be affected by
+     * later updates.
+     *
+     * @return the latest snapshot.
+     */
+    public Snapshot<E> snapshot() {
+        return current;
+    }
+
+    /**
+     * Sets the weight of a single edge.
+     *
+     * @param edge the index of the edge
+     * @param weight the new weight
+     */
+    public void setWeight(final int edge, final double weight) {
+        setWeights(new int[] {edge}, new double[] {weight});
+    }
+
+    /**
+     * Sets the weights of the given edges, publishing them all at once.
+     *
+     * @param edges the indices of the edges
+     * @param weights the new weight of each edge
+     */
+    public synchronized void setWeights(@Nonnull final int[] edges, @Nonnull final double[] weights) {
+        checkArgument(requireNonNull(edges).length == requireNonNull(weights).length,
+                "Edges and weights must have the same length.");
+        final Snapshot<E> previous = current;
+        final double[][] pages = previous.pages.clone();
+        for (int i = 0; i < edges.length; i++) {
+            final int page = checkElementIndex(edges[i], size) >>> PAGE_SHIFT;
+            if (pages[page] == previous.pages[page]) {
+                pages[page] = pages[page].clone();
+            }
+            pages[page][edges[i] & PAGE_MASK] = weights[i];
+        }
+        current = new Snapshot<>(this, previous.epoch + 1, pages, previous.profiles);
+    }
+
+    /**
+     * Sets the time-dependent weight profile of an edge.
+     *
+     * @param edge the index of the edge
+     * @param profile the new profile, or {@code null} for making the weight of the edge
+     *                independent of time again
+     */
+    public void setProfile(final int edge, final PiecewiseLinearProfile profile) {
+        setProfiles(new int[] {edge}, new PiecewiseLinearProfile[] {profile});
+    }
+
+    /**
+     * Sets the time-dependent weight profiles of the given edges, publishing them all at once.
+     *
+     * @param edges the indices of the edges
+     * @param profiles the new profile of each edge, or {@code null} for making the weight of
+     *                 an edge independent of time again
+     */
+    public synchronized void setProfiles(@Nonnull final int[] edges, @Nonnull final PiecewiseLinearProfile[] profiles) {
+        checkArgument(requireNonNull(edges).length == requireNonNull(profiles).length,
+                "Edges and profiles must have the same length.");
+        final Snapshot<E> previous = current;
+        final Int2ObjectMap<PiecewiseLinearProfile> updated = new Int2ObjectOpenHashMap<>(previous.profiles);
+        for (int i = 0; i < edges.length; i++) {
+            checkElementIndex(edges[i], size);
+            if (profiles[i] == null) {
+                updated.remove(edges[i]);
+            } else {
+                updated.put(edges[i], profiles[i]);
+            }
+        }
+        current = new Snapshot<>(this, previous.epoch + 1, previous.pages, Int2ObjectMaps.unmodifiable(updated));
+    }
+
+    /**
+     * Immutable view of the weights held by a {@link WeightOverlay} at a given moment.
+     *
+     * @param <E> type of edge
+     */
+    public static final class Snapshot<E> implements EdgeWeightFunction<E>, ToDoubleFunction<E> {
+
+        private final WeightOverlay<E> overlay;
+        private final long epoch;
+        private final double[][] pages;
+        private final Int2ObjectMap<PiecewiseLinearProfile> profiles;
+
+        private Snapshot(final WeightOverlay<E> overlay, final long epoch, final double[][] pages,
+                final Int2ObjectMap<PiecewiseLinearProfile> profiles) {
+            this.overlay = overlay;
+            this.epoch = epoch;
+            this.pages = pages;
+            this.profiles = profiles;
+        }
+
+        /**
+         * Returns the number of updates which had been applied to the overlay
+         * when this snapshot was taken.
+         *
+         * @return the epoch of this snapshot.
+         */
+        public long getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * Returns the weight of the edge with the given index, ignoring its profile.
+         *
+         * @param edge the index of the edge
+         * @return the weight of the edge.
+         */
+        public double weightOf(final int edge) {
+            checkElementIndex(edge, overlay.size);
+            return pages[edge >>> PAGE_SHIFT][edge & PAGE_MASK];
+        }
+
+        /**
+         * Returns the weight of the edge with the given index at the given time.
+         *
+         * @param edge the index of the edge
+         * @param time the time at which the edge is entered
+         * @return the value of the edge's profile at the given time if it has one,
+         * its weight otherwise.
+         */
+        public double weightOf(final int edge, final double time) {
+            if (!profiles.isEmpty()) {
+                final PiecewiseLinearProfile profile = profiles.get(edge);
+                if (profile != null) {
+                    return profile.valueAt(time);
+                }
+            }
+            return weightOf(edge);
+        }
+
+        @Override
+        public double apply(final E edge, final double time) {
+            return weightOf(overlay.edgeIndex.applyAsInt(edge), time);
+        }
+
+        @Override
+        public double applyAsDouble(final E edge) {
+            return weightOf(overlay.edgeIndex.applyAsInt(edge));
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.github.graphextras.graphs;
+
+import com.google.common.graph.ImmutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact, immutable weighted graph whose nodes are identified by consecutive
+ * integers, starting from {@code 0}.
+ * <p>
+ * Edges are stored in primitive arrays in compressed sparse row form: the edges
+ * leaving a given node occupy a contiguous range of slots, going from
+ * {@link #edgesStart(int)} (inclusive) to {@link #edgesEnd(int)} (exclusive).
+ * In undirected graphs, each edge is stored once for each of its endpoints.
+ * </p>
+ * <p>
+ * See {@link GraphLoaders} for loading a {@code CompiledGraph} from a file.
+ * </p>
+ */
+public final class CompiledGraph {
+
+    private final boolean directed;
+    private final int edgeCount;
+    /*
+     * Slots of the edges leaving node i range from offsets[i] to offsets[i + 1].
+     */
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    /*
+     * Maps each slot to the index of the edge it represents.
+     */
+    private final int[] edgeIds;
+    /*
+     * Node coordinates, or null if none were loaded.
+     */
+    private final double[] xs;
+    private final double[] ys;
+
+    private CompiledGraph(final boolean directed, final int edgeCount, final int[] offsets, final int[] targets,
+            final double[] weights, final int[] edgeIds, final double[] xs, final double[] ys) {
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeIds = edgeIds;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Compiles the given edge list. The i-th edge goes from {@code sources[i]}
+     * to {@code targets[i]} and has index {@code i}.
+     *
+     * @param nodeCount the number of nodes, which must be greater than any node in the edge list
+     * @param sources the source of each edge
+     * @param targets the target of each edge
+     * @param weights the weight of each edge
+     * @param directed whether the edges are directed
+     * @param xs the x coordinate of each node, or {@code null}
+     * @param ys the y coordinate of each node, or {@code null}
+     * @return the compiled graph.
+     */
+    static CompiledGraph compile(final int nodeCount, final int[] sources, final int[] targets,
+            final double[] weights, final boolean directed, final double[] xs, final double[] ys) {
+        final int edgeCount = sources.length;
+        final int slotCount = directed ? edgeCount : 2 * edgeCount;
+        final int[] offsets = new int[nodeCount + 1];
+
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[sources[i] + 1]++;
+            if (!directed) {
+                offsets[targets[i] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        final int[] next = new int[nodeCount];
+        System.arraycopy(offsets, 0, next, 0, nodeCount);
+        final int[] slotTargets = new int[slotCount];
+        final double[] slotWeights = new double[slotCount];
+        final int[] slotEdgeIds = new int[slotCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int slot = next[sources[i]]++;
+            slotTargets[slot] = targets[i];
+            slotWeights[slot] = weights[i];
+            slotEdgeIds[slot] = i;
+            if (!directed) {
+                slot = next[targets[i]]++;
+                slotTargets[slot] = sources[i];
+                slotWeights[slot] = weights[i];
+                slotEdgeIds[slot] = i;
+            }
+        }
+        return new CompiledGraph(directed, edgeCount, offsets, slotTargets, slotWeights, slotEdgeIds, xs, ys);
+    }
+
+    /**
+     * Tells whether this graph's edges are directed.
+     *
+     * @return {@code true} if the edges are directed, {@code false} otherwise.
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Returns the number of nodes in this graph.
+     *
+     * @return the number of nodes.
+     */
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the first slot occupied by the edges leaving the given node.
+     *
+     * @param node the node
+     * @return the first slot of the given node's edges.
+     */
+    public int edgesStart(final int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the slot following the last one occupied by the edges leaving the given node.
+     *
+     * @param node the node
+     * @return the end (exclusive) of the given node's edges.
+     */
+    public int edgesEnd(final int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Returns the node reached by the edge in the given slot.
+     *
+     * @param slot the slot
+     * @return the target of the edge.
+     */
+    public int target(final int slot) {
+        return targets[slot];
+    }
+
+    /**
+     * Returns the weight of the edge in the given slot.
+     *
+     * @param slot the slot
+     * @return the weight of the edge.
+     */
+    public double weight(final int slot) {
+        return weights[slot];
+    }
+
+    /**
+     * Returns the index of the edge in the given slot, that is its position in
+     * the edge list this graph was compiled from.
+     *
+     * @param slot the slot
+     * @return the index of the edge.
+     */
+    public int edgeId(final int slot) {
+        return edgeIds[slot];
+    }
+
+    /**
+     * Tells whether coordinates were supplied for this graph's nodes.
+     *
+     * @return {@code true} if the nodes have coordinates, {@code false} otherwise.
+     */
+    public boolean hasCoordinates() {
+        return xs != null;
+    }
+
+    /**
+     * Returns the x coordinate of the given node.
+     *
+     * @param node the node
+     * @return the x coordinate, or {@link Double#NaN} if it was not supplied.
+     */
+    public double x(final int node) {
+        checkState(hasCoordinates(), "This graph has no coordinates.");
+        return xs[node];
+    }
+
+    /**
+     * Returns the y coordinate of the given node.
+     *
+     * @param node the node
+     * @return the y coordinate, or {@link Double#NaN} if it was not supplied.
+     */
+    public double y(final int node) {
+        checkState(hasCoordinates(), "This graph has no coordinates.");
+        return ys[node];
+    }
+
+    /**
+     * Converts this graph to a Guava {@link ImmutableNetwork}.
+     * <p>
+     * A node will be instantiated for each node of this graph with the given {@code nodeFunc}
+     * function, and an edge for each edge with the given {@code edgeFunc}. Guava's networks
+     * identify edges by their value, so {@code edgeFunc} must return a distinct object for each
+     * edge index (e.g. the index itself, rather than the weight). Parallel edges are not supported
+     * by the pathfinders, so only the first edge connecting a pair of nodes will be kept.
+     * </p>
+     * <p>
+     * The network is assembled by Guava's {@link ImmutableNetwork.Builder}, which keeps its own
+     * working copy of the network until it is built: the conversion therefore temporarily requires
+     * about twice as much memory as the resulting network.
+     * </p>
+     *
+     * @param nodeFunc function for instantiating nodes from their identifiers
+     * @param edgeFunc function for instantiating edges, returning distinct objects for distinct
+     *                 indices
+     * @param <N> type of node
+     * @param <E> type of edge
+     * @return this graph in the form of an {@link ImmutableNetwork}.
+     * @throws IllegalArgumentException if {@code edgeFunc} returns the same object for two edges
+     */
+    public <N, E> ImmutableNetwork<N, E> toNetwork(@Nonnull final IntFunction<N> nodeFunc,
+            @Nonnull final EdgeFunction<N, E> edgeFunc) {
+        requireNonNull(nodeFunc);
+        requireNonNull(edgeFunc);
+
+        final NetworkBuilder<Object, Object> networkBuilder = directed
+                ? NetworkBuilder.directed()
+                : NetworkBuilder.undirected();
+        final ImmutableNetwork.Builder<N, E> builder = networkBuilder
+                .allowsSelfLoops(true)
+                .expectedNodeCount(nodeCount())
+                .expectedEdgeCount(edgeCount)
+                .immutable();
+        final Object[] nodes = new Object[nodeCount()];
+        for (int node = 0; node < nodes.length; node++) {
+            nodes[node] = nodeFunc.apply(node);
+            builder.addNode(nodeOf(nodes, node));
+        }
+        /*
+         * Last node from which an edge towards each node has been added, for skipping
+         * parallel edges. In undirected graphs, each edge is only added from the endpoint
+         * with the lowest identifier.
+         */
+        final int[] lastSources = new int[nodes.length];
+        Arrays.fill(lastSources, -1);
+        for (int node = 0; node < nodes.length; node++) {
+            final N source = nodeOf(nodes, node);
+            for (int slot = edgesStart(node); slot < edgesEnd(node); slot++) {
+                final int target = targets[slot];
+                if ((directed || target >= node) && lastSources[target] != node) {
+                    lastSources[target] = node;
+                    builder.addEdge(source, nodeOf(nodes, target),
+                            edgeFunc.apply(edgeIds[slot], source, nodeOf(nodes, target), weights[slot]));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <N> N nodeOf(final Object[] nodes, final int node) {
+        return (N) nodes[node];
+    }
+
+    /**
+     * Functional interface for instantiating edges.
+     *
+     * @param <N> type of node
+     * @param <E> type of edge
+     */
+    @FunctionalInterface
+    public interface EdgeFunction<N, E> {
+
+        /**
+         * Creates an edge.
+         *
+         * @param index the index of the edge
+         * @param source the source node
+         * @param target the target node
+         * @param weight the weight of the edge
+         * @return the new edge.
+         */
+        E apply(int index, N source, N target, double weight);
+    }
+}
@@ -0,0 +1,534 @@
+package com.github.graphextras.graphs;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collection of utility methods for loading graphs from files.
+ * <p>
+ * Nodes are identified by non-negative integers, which should be consecutive:
+ * the resulting {@link CompiledGraph} will contain every node from {@code 0} up to the
+ * highest identifier found. Files are memory-mapped and split into chunks which are
+ * parsed in parallel directly into primitive arrays.
+ * </p>
+ * <p>
+ * Two formats are supported:
+ * </p>
+ * <ul>
+ *     <li>text, with one record per line and fields separated by commas, semicolons
+ *     or whitespace. Edge records are made of a source, a target and an optional weight
+ *     (which defaults to {@code 1.0}); coordinate records are made of a node, an x and a y
+ *     coordinate. Blank lines and lines starting with {@code #} are ignored, as well as the
+ *     first line of the file if it starts with a letter (i.e. it is a header);</li>
+ *     <li>binary, with fixed-size big-endian records, as written by
+ *     {@link java.io.DataOutputStream}: edge records are made of an {@code int} source,
+ *     an {@code int} target and a {@code double} weight; coordinate records are made of an
+ *     {@code int} node and two {@code double} coordinates.</li>
+ * </ul>
+ * <p>
+ * Edges are numbered in the order in which they appear in the file. Weights must be
+ * finite and non-negative: malformed records of either format are rejected with an
+ * {@link IllegalArgumentException}.
+ * See {@link CompiledGraph#toNetwork} for converting the loaded graphs to Guava's networks.
+ * </p>
+ */
+public final class GraphLoaders {
+
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 26;
+    private static final int MAX_LINE_LENGTH = 1 << 12;
+    private static final int EDGE_RECORD_SIZE = 2 * Integer.BYTES + Double.BYTES;
+    private static final int COORDINATES_RECORD_SIZE = Integer.BYTES + 2 * Double.BYTES;
+    private static final double DEFAULT_WEIGHT = 1.0;
+
+    private GraphLoaders() {
+    }
+
+    /**
+     * Loads a graph from a text edge list.
+     *
+     * @param edges the path of the edge list
+     * @param directed whether the edges are directed
+     * @return the loaded graph.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static CompiledGraph loadCsv(@Nonnull final Path edges, final boolean directed) throws IOException {
+        return compile(readCsv(requireNonNull(edges), 2, 1, GraphLoaders::parseEdge), null, directed);
+    }
+
+    /**
+     * Loads a graph from a text edge list and a text list of node coordinates.
+     *
+     * @param edges the path of the edge list
+     * @param coordinates the path of the coordinates list
+     * @param directed whether the edges are directed
+     * @return the loaded graph.
+     * @throws IOException if the files cannot be read
+     * @throws IllegalArgumentException if the files are malformed
+     */
+    public static CompiledGraph loadCsv(@Nonnull final Path edges, @Nonnull final Path coordinates,
+            final boolean directed) throws IOException {
+        return compile(readCsv(requireNonNull(edges), 2, 1, GraphLoaders::parseEdge),
+                readCsv(requireNonNull(coordinates), 1, 2, GraphLoaders::parseCoordinates), directed);
+    }
+
+    /**
+     * Loads a graph from a binary edge list.
+     *
+     * @param edges the path of the edge list
+     * @param directed whether the edges are directed
+     * @return the loaded graph.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static CompiledGraph loadBinary(@Nonnull final Path edges, final boolean directed) throws IOException {
+        return compile(readBinary(requireNonNull(edges), EDGE_RECORD_SIZE, 2, 1, GraphLoaders::readEdge),
+                null, directed);
+    }
+
+    /**
+     * Loads a graph from a binary edge list and a binary list of node coordinates.
+     *
+     * @param edges the path of the edge list
+     * @param coordinates the path of the coordinates list
+     * @param directed whether the edges are directed
+     * @return the loaded graph.
+     * @throws IOException if the files cannot be read
+     * @throws IllegalArgumentException if the files are malformed
+     */
+    public static CompiledGraph loadBinary(@Nonnull final Path edges, @Nonnull final Path coordinates,
+            final boolean directed) throws IOException {
+        return compile(readBinary(requireNonNull(edges), EDGE_RECORD_SIZE, 2, 1, GraphLoaders::readEdge),
+                readBinary(requireNonNull(coordinates), COORDINATES_RECORD_SIZE, 1, 2, GraphLoaders::readCoordinates),
+                directed);
+    }
+
+    private static void parseEdge(final LineCursor cursor, final Columns columns) {
+        columns.ints[0].add(cursor.nextNode());
+        columns.ints[1].add(cursor.nextNode());
+        columns.doubles[0].add(cursor.hasNext() ? checkWeight(cursor.nextDouble()) : DEFAULT_WEIGHT);
+    }
+
+    private static void parseCoordinates(final LineCursor cursor, final Columns columns) {
+        columns.ints[0].add(cursor.nextNode());
+        columns.doubles[0].add(cursor.nextDouble());
+        columns.doubles[1].add(cursor.nextDouble());
+    }
+
+    private static void readEdge(final ByteBuffer buffer, final Columns columns) {
+        columns.ints[0].add(checkNode(buffer.getInt()));
+        columns.ints[1].add(checkNode(buffer.getInt()));
+        columns.doubles[0].add(checkWeight(buffer.getDouble()));
+    }
+
+    private static void readCoordinates(final ByteBuffer buffer, final Columns columns) {
+        columns.ints[0].add(checkNode(buffer.getInt()));
+        columns.doubles[0].add(buffer.getDouble());
+        columns.doubles[1].add(buffer.getDouble());
+    }
+
+    private static int checkNode(final int node) {
+        checkArgument(node >= 0 && node < Integer.MAX_VALUE, "Invalid node: %s.", node);
+        return node;
+    }
+
+    /*
+     * None of the pathfinders is correct with negative weights. NaN fails the check as well.
+     */
+    private static double checkWeight(final double weight) {
+        checkArgument(weight >= 0.0 && weight < Double.POSITIVE_INFINITY, "Invalid weight: %s.", weight);
+        return weight;
+    }
+
+    /**
+     * Builds a graph from the loaded edges and, if present, coordinates.
+     */
+    private static CompiledGraph compile(final Table edges, final Table coordinates, final boolean directed) {
+        final int[] sources = edges.ints[0];
+        final int[] targets = edges.ints[1];
+        final double[] weights = edges.doubles[0];
+        checkArgument(directed || sources.length <= Integer.MAX_VALUE / 2, "Too many edges.");
+
+        int maxNode = Math.max(max(sources), max(targets));
+        if (coordinates == null) {
+            return CompiledGraph.compile(maxNode + 1, sources, targets, weights, directed, null, null);
+        }
+
+        final int[] nodes = coordinates.ints[0];
+        maxNode = Math.max(maxNode, max(nodes));
+        final double[] xs = new double[maxNode + 1];
+        final double[] ys = new double[maxNode + 1];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        for (int i = 0; i < nodes.length; i++) {
+            xs[nodes[i]] = coordinates.doubles[0][i];
+            ys[nodes[i]] = coordinates.doubles[1][i];
+        }
+        return CompiledGraph.compile(maxNode + 1, sources, targets, weights, directed, xs, ys);
+    }
+
+    private static int max(final int[] values) {
+        int max = -1;
+        for (final int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Computes the size of the chunks a file is split into, so that every thread of the
+     * common pool gets a few of them.
+     */
+    private static long chunkSize(final long fileSize) {
+        final long parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, fileSize / (4 * parallelism)));
+    }
+
+    private static Table readCsv(final Path path, final int intColumns, final int doubleColumns,
+            final LineParser parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long chunkSize = chunkSize(size);
+            final int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+            return Table.concat(intColumns, doubleColumns, parallel(chunks, chunk -> {
+                final Columns columns = new Columns(intColumns, doubleColumns, (int) (chunkSize / 16));
+                parseCsvChunk(channel, chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize), size,
+                        parser, columns);
+                return columns;
+            }));
+        }
+    }
+
+    /**
+     * Parses all the lines starting between {@code start} (inclusive) and {@code end} (exclusive).
+     */
+    private static void parseCsvChunk(final FileChannel channel, final long start, final long end, final long size,
+            final LineParser parser, final Columns columns) throws IOException {
+        /*
+         * Map one more byte before the chunk to tell whether it begins with a new line,
+         * and enough bytes after it to complete its last line.
+         */
+        final long mapStart = Math.max(0, start - 1);
+        final long mapEnd = Math.min(size, end + MAX_LINE_LENGTH);
+        final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        final int limit = (int) (end - mapStart);
+        int position = (int) (start - mapStart);
+        boolean header = start == 0;
+
+        if (start > 0 && buffer.get(position - 1) != '\n') {
+            while (position < buffer.limit() && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        final LineCursor cursor = new LineCursor(buffer, mapStart);
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            checkArgument(lineEnd < buffer.limit() || mapEnd == size,
+                    "Line at offset %s exceeds %s bytes.", mapStart + position, MAX_LINE_LENGTH);
+
+            cursor.reset(position, lineEnd);
+            if (cursor.hasNext() && !cursor.isComment()) {
+                if (!(header && cursor.isHeader())) {
+                    parser.parse(cursor, columns);
+                    cursor.checkEnd();
+                }
+                header = false;
+            }
+            position = lineEnd + 1;
+        }
+    }
+
+    private static Table readBinary(final Path path, final int recordSize, final int intColumns,
+            final int doubleColumns, final RecordReader reader) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            checkArgument(size % recordSize == 0, "The size of %s is not a multiple of %s bytes.", path, recordSize);
+            final long chunkSize = chunkSize(size) / recordSize * recordSize;
+            final int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+            return Table.concat(intColumns, doubleColumns, parallel(chunks, chunk -> {
+                final long start = chunk * chunkSize;
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, chunkSize));
+                final Columns columns = new Columns(intColumns, doubleColumns, buffer.limit() / recordSize);
+                while (buffer.hasRemaining()) {
+                    reader.read(buffer, columns);
+                }
+                return columns;
+            }));
+        }
+    }
+
+    /**
+     * Processes the given number of chunks in parallel, returning their results in order
+     * in a mutable list.
+     */
+    private static List<Columns> parallel(final int chunks, final ChunkTask task) throws IOException {
+        try {
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        try {
+                            return task.process(chunk);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        Columns process(long chunk) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        void parse(LineCursor cursor, Columns columns);
+    }
+
+    @FunctionalInterface
+    private interface RecordReader {
+        void read(ByteBuffer buffer, Columns columns);
+    }
+
+    /**
+     * Primitive columns holding the records parsed from a chunk.
+     */
+    private static final class Columns {
+
+        private final IntArrayList[] ints;
+        private final DoubleArrayList[] doubles;
+
+        private Columns(final int intColumns, final int doubleColumns, final int expectedRecords) {
+            ints = new IntArrayList[intColumns];
+            doubles = new DoubleArrayList[doubleColumns];
+            for (int i = 0; i < intColumns; i++) {
+                ints[i] = new IntArrayList(expectedRecords);
+            }
+            for (int i = 0; i < doubleColumns; i++) {
+                doubles[i] = new DoubleArrayList(expectedRecords);
+            }
+        }
+
+        private int size() {
+            return doubles[0].size();
+        }
+    }
+
+    /**
+     * Primitive columns holding all the records parsed from a file.
+     */
+    private static final class Table {
+
+        private final int[][] ints;
+        private final double[][] doubles;
+
+        private Table(final int intColumns, final int doubleColumns, final int records) {
+            ints = new int[intColumns][records];
+            doubles = new double[doubleColumns][records];
+        }
+
+        /**
+         * Copies the records of the given chunks, in order, into columns of the exact size.
+         * Each chunk is released as soon as it has been copied, so that the records are never
+         * held twice in full.
+         */
+        private static Table concat(final int intColumns, final int doubleColumns, final List<Columns> chunks) {
+            final int[] offsets = new int[chunks.size() + 1];
+            for (int chunk = 0; chunk < chunks.size(); chunk++) {
+                final long end = (long) offsets[chunk] + chunks.get(chunk).size();
+                checkArgument(end < Integer.MAX_VALUE, "Too many records.");
+                offsets[chunk + 1] = (int) end;
+            }
+
+            final Table table = new Table(intColumns, doubleColumns, offsets[chunks.size()]);
+            for (int chunk = 0; chunk < chunks.size(); chunk++) {
+                final Columns columns = chunks.set(chunk, null);
+                for (int i = 0; i < intColumns; i++) {
+                    System.arraycopy(columns.ints[i].elements(), 0, table.ints[i], offsets[chunk], columns.size());
+                }
+                for (int i = 0; i < doubleColumns; i++) {
+                    System.arraycopy(columns.doubles[i].elements(), 0, table.doubles[i], offsets[chunk],
+                            columns.size());
+                }
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Reads the fields of a line without allocating objects.
+     */
+    private static final class LineCursor {
+
+        private static final int MAX_FAST_DIGITS = 15;
+        private static final int MAX_DIGITS = 18;
+        private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private final ByteBuffer buffer;
+        private final long offset;
+        private int position;
+        private int end;
+
+        private LineCursor(final ByteBuffer buffer, final long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        private void reset(final int start, final int end) {
+            this.position = start;
+            this.end = end;
+        }
+
+        private static boolean isSeparator(final byte c) {
+            return c == ',' || c == ';' || c == ' ' || c == '\t' || c == '\r';
+        }
+
+        private static boolean isDigit(final byte c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private boolean hasNext() {
+            while (position < end && isSeparator(buffer.get(position))) {
+                position++;
+            }
+            return position < end;
+        }
+
+        private boolean isComment() {
+            return buffer.get(position) == '#';
+        }
+
+        private boolean isHeader() {
+            return Character.isLetter(buffer.get(position));
+        }
+
+        private void checkEnd() {
+            checkArgument(!hasNext(), "Unexpected field at offset %s.", offset + position);
+        }
+
+        private void checkFieldEnd() {
+            checkArgument(position == end || isSeparator(buffer.get(position)),
+                    "Malformed number at offset %s.", offset + position);
+        }
+
+        private int nextNode() {
+            checkArgument(hasNext(), "Missing field at offset %s.", offset + position);
+            final int start = position;
+            long value = 0;
+            while (position < end && isDigit(buffer.get(position)) && value < Integer.MAX_VALUE) {
+                value = value * 10 + buffer.get(position++) - '0';
+            }
+            checkArgument(position > start && value < Integer.MAX_VALUE,
+                    "Invalid node at offset %s.", offset + start);
+            checkFieldEnd();
+            return (int) value;
+        }
+
+        private double nextDouble() {
+            checkArgument(hasNext(), "Missing field at offset %s.", offset + position);
+            final int start = position;
+            final boolean negative = buffer.get(position) == '-';
+            if (negative || buffer.get(position) == '+') {
+                position++;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean valid = false;
+            while (position < end && isDigit(buffer.get(position))) {
+                valid = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + buffer.get(position) - '0';
+                    digits += mantissa == 0 ? 0 : 1;
+                } else {
+                    exponent++;
+                }
+                position++;
+            }
+            if (position < end && buffer.get(position) == '.') {
+                position++;
+                while (position < end && isDigit(buffer.get(position))) {
+                    valid = true;
+                    if (digits < MAX_DIGITS) {
+                        mantissa = mantissa * 10 + buffer.get(position) - '0';
+                        digits += mantissa == 0 ? 0 : 1;
+                        exponent--;
+                    }
+                    position++;
+                }
+            }
+            if (valid && position < end && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+                position++;
+                final boolean negativeExponent = position < end && buffer.get(position) == '-';
+                if (position < end && (negativeExponent || buffer.get(position) == '+')) {
+                    position++;
+                }
+                int value = 0;
+                valid = position < end && isDigit(buffer.get(position));
+                while (position < end && isDigit(buffer.get(position))) {
+                    value = Math.min(value * 10 + buffer.get(position++) - '0', 1 << 16);
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+
+            if (!valid || digits > MAX_FAST_DIGITS || Math.abs(exponent) >= POWERS_OF_TEN.length) {
+                /*
+                 * Let the JDK handle special values and numbers which cannot be converted exactly
+                 * with a single operation.
+                 */
+                while (position < end && !isSeparator(buffer.get(position))) {
+                    position++;
+                }
+                return slowParse(start);
+            }
+            checkFieldEnd();
+            final double value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        private double slowParse(final int start) {
+            final byte[] bytes = new byte[position - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            try {
+                return Double.parseDouble(new String(bytes, StandardCharsets.ISO_8859_1));
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed number at offset " + (offset + start) + ".", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import com.github.graphextras.algorithms.AStarPathfinder;
+import com.github.graphextras.graphs.CompiledGraph;
+import com.github.graphextras.graphs.GraphLoaders;
+import com.google.common.graph.ImmutableNetwork;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphLoadersTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void csvEdgesAndCoordinates() throws IOException {
+        final Path edges = Files.writeString(directory.resolve("edges.csv"),
+                "source,target,weight\r\n# comment\r\n0,1,1.5\r\n\r\n1 2 2.5e-1\r\n2;3\r\n0,3,0.125\r\n");
+        final Path coordinates = Files.writeString(directory.resolve("coordinates.csv"),
+                "0,0.0,0.0\n1,1,2\n3,3.25,-4\n");
+        final CompiledGraph graph = GraphLoaders.loadCsv(edges, coordinates, true);
+
+        assertTrue(graph.isDirected());
+        assertEquals(4, graph.nodeCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(2, graph.edgesEnd(0) - graph.edgesStart(0));
+        assertEquals(1, graph.target(graph.edgesStart(0)));
+        assertEquals(1.5, graph.weight(graph.edgesStart(0)));
+        assertEquals(0.125, graph.weight(graph.edgesStart(0) + 1));
+        assertEquals(3, graph.edgeId(graph.edgesStart(0) + 1));
+        assertEquals(0.25, graph.weight(graph.edgesStart(1)));
+        assertEquals(1.0, graph.weight(graph.edgesStart(2)));
+        assertEquals(0, graph.edgesEnd(3) - graph.edgesStart(3));
+        assertEquals(3.25, graph.x(3));
+        assertEquals(-4.0, graph.y(3));
+        assertTrue(Double.isNaN(graph.x(2)));
+    }
+
+    @Test
+    void malformedCsv() throws IOException {
+        final Path edges = Files.writeString(directory.resolve("edges.csv"), "0,1,1.0\n1,x,1.0\n");
+        assertThrows(IllegalArgumentException.class, () -> GraphLoaders.loadCsv(edges, false));
+    }
+
+    @Test
+    void invalidWeights() throws IOException {
+        for (final String weight : new String[] {"-0.125", "NaN", "Infinity"}) {
+            final Path edges = Files.writeString(directory.resolve("edges.csv"), "0,1,1.0\n1,2," + weight + "\n");
+            assertThrows(IllegalArgumentException.class, () -> GraphLoaders.loadCsv(edges, false));
+        }
+
+        final Path binary = directory.resolve("edges.bin");
+        try (DataOutputStream data = new DataOutputStream(Files.newOutputStream(binary))) {
+            data.writeInt(0);
+            data.writeInt(1);
+            data.writeDouble(-1.0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> GraphLoaders.loadBinary(binary, false));
+    }
+
+    @Test
+    void binaryMatchesCsv() throws IOException {
+        final int nodes = 100_000;
+        final Path csv = directory.resolve("edges.csv");
+        final Path binary = directory.resolve("edges.bin");
+        try (BufferedWriter text = Files.newBufferedWriter(csv);
+             OutputStream stream = Files.newOutputStream(binary);
+             DataOutputStream data = new DataOutputStream(stream)) {
+            for (int node = 0; node + 1 < nodes; node++) {
+                final double weight = (node % 1000) / 8.0;
+                text.write(node + "," + (node + 1) + "," + weight + "\n");
+                data.writeInt(node);
+                data.writeInt(node + 1);
+                data.writeDouble(weight);
+            }
+        }
+
+        final CompiledGraph fromCsv = GraphLoaders.loadCsv(csv, false);
+        final CompiledGraph fromBinary = GraphLoaders.loadBinary(binary, false);
+        assertEquals(nodes, fromCsv.nodeCount());
+        assertEquals(nodes - 1, fromCsv.edgeCount());
+        assertEquals(nodes, fromBinary.nodeCount());
+        assertEquals(nodes - 1, fromBinary.edgeCount());
+        for (int node = 0; node < nodes; node++) {
+            assertEquals(fromCsv.edgesStart(node), fromBinary.edgesStart(node));
+            assertEquals(fromCsv.edgesEnd(node), fromBinary.edgesEnd(node));
+            for (int slot = fromCsv.edgesStart(node); slot < fromCsv.edgesEnd(node); slot++) {
+                assertEquals(fromCsv.target(slot), fromBinary.target(slot));
+                assertEquals(fromCsv.weight(slot), fromBinary.weight(slot));
+                assertEquals(fromCsv.edgeId(slot), fromBinary.edgeId(slot));
+            }
+        }
+    }
+
+    @Test
+    void toNetwork() throws IOException {
+        final Path edges = Files.writeString(directory.resolve("edges.csv"),
+                "0,1,1.0\n1,0,1.0\n1,2,1.0\n0,2,5.0\n");
+        final double[] weights = {1.0, 1.0, 1.0, 5.0};
+        final ImmutableNetwork<Integer, Integer> network = GraphLoaders.loadCsv(edges, false)
+                .toNetwork(node -> node, (index, source, target, weight) -> index);
+
+        assertEquals(3, network.nodes().size());
+        assertEquals(3, network.edges().size());
+        assertEquals(List.of(0, 1, 2),
+                new AStarPathfinder<>(network, index -> weights[index], (node1, node2) -> 0.0).findPath(0, 2));
+    }
+}
@@ -2,15 +2,30 @@ import com.github.graphextras.algorithms.*;
 import com.google.common.graph.*;
 import it.unimi.dsi.fastutil.doubles.DoubleDoubleImmutablePair;
 import it.unimi.dsi.fastutil.doubles.DoubleDoublePair;
+import it.unimi.dsi.fastutil.Pair;
 import it.unimi.dsi.fastutil.objects.ObjectObjectImmutablePair;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static com.github.graphextras.algorithms.Heuristics.euclideanDistance;
 
 @SuppressWarnings("SuspiciousNameCombination")
@@ -54,6 +69,14 @@ public class PathfindersTest {
         DoubleDoubleImmutablePair.of(-1.0,  3.0)     // 17
     );
 
+    private static Pathfinder<DoubleDoublePair> newAStarUndir() {
+        return new AStarPathfinder<>(
+                undirectedGraph,
+                e -> euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble)
+                        .apply(e.left(), e.right()),
+                euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble));
+    }
+
     @BeforeAll
     static void setup() {
         directedGraph = NetworkBuilder.directed().build();
@@ -166,4 +189,283 @@ public class PathfindersTest {
         assertEquals(expected, aStarDir.findPath(p.get(3), p.get(3)));
         assertEquals(expected, idaDir.findPath(p.get(3), p.get(3)));
     }
+
+    @Test
+    void multipleDestinationsUndirected() {
+        final Map<DoubleDoublePair, List<DoubleDoublePair>> expected = Map.of(
+                p.get(2), List.of(p.get(6), p.get(0), p.get(2)),
+                p.get(16), List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)),
+                p.get(6), List.of(p.get(6)));
+        assertEquals(expected, aStarUndir.findPaths(p.get(6), Set.of(p.get(2), p.get(16), p.get(6))));
+        assertEquals(expected, idaUndir.findPaths(p.get(6), Set.of(p.get(2), p.get(16), p.get(6))));
+    }
+
+    @Test
+    void multipleDestinationsDirected() {
+        final Map<DoubleDoublePair, List<DoubleDoublePair>> expected = Map.of(
+                p.get(2), Collections.emptyList(),
+                p.get(16), List.of(p.get(6), p.get(7), p.get(8), p.get(9), p.get(12), p.get(15), p.get(16)));
+        assertEquals(expected, aStarDir.findPaths(p.get(6), Set.of(p.get(2), p.get(16))));
+        assertEquals(expected, idaDir.findPaths(p.get(6), Set.of(p.get(2), p.get(16))));
+    }
+
+    @Test
+    void batchQueries() {
+        final List<Pair<DoubleDoublePair, DoubleDoublePair>> queries = List.of(
+                Pair.of(p.get(0), p.get(2)),
+                Pair.of(p.get(6), p.get(16)),
+                Pair.of(p.get(3), p.get(6)),
+                Pair.of(p.get(6), p.get(2)),
+                Pair.of(p.get(3), p.get(3)));
+        final var expected = List.of(
+                List.of(p.get(0), p.get(2)),
+                List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)),
+                List.of(p.get(3), p.get(2), p.get(0), p.get(6)),
+                List.of(p.get(6), p.get(0), p.get(2)),
+                List.of(p.get(3)));
+        assertEquals(expected, new BatchPathfinder<>(PathfindersTest::newAStarUndir).findPaths(queries).stream()
+                .map(PathResult::toList)
+                .collect(Collectors.toList()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertEquals(expected, new BatchPathfinder<>(PathfindersTest::newAStarUndir, executor, 1)
+                    .findPaths(queries).stream()
+                    .map(PathResult::toList)
+                    .collect(Collectors.toList()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void asyncBatchQueries() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final BatchPathfinder<DoubleDoublePair> batch = new BatchPathfinder<>(PathfindersTest::newAStarUndir,
+                tasks::add, 1);
+        final var results = batch.findPathsAsync(List.of(
+                Pair.of(p.get(0), p.get(2)),
+                Pair.of(p.get(6), p.get(16)),
+                Pair.of(p.get(0), p.get(6))));
+
+        assertEquals(1, tasks.size());
+        assertTrue(results.stream().noneMatch(CompletableFuture::isDone));
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+            assertTrue(tasks.size() <= 1);
+        }
+        assertEquals(List.of(
+                List.of(p.get(0), p.get(2)),
+                List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)),
+                List.of(p.get(0), p.get(6))),
+                results.stream().map(result -> result.join().toList()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void boundedBatchQueue() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final BatchPathfinder<DoubleDoublePair> batch = new BatchPathfinder<>(PathfindersTest::newAStarUndir,
+                tasks::add, 1, 1);
+        final var results = batch.findPathsAsync(List.of(
+                Pair.of(p.get(0), p.get(2)),
+                Pair.of(p.get(6), p.get(16)),
+                Pair.of(p.get(3), p.get(6)),
+                Pair.of(p.get(3), p.get(3))));
+
+        assertEquals(1, tasks.size());
+        assertTrue(results.get(2).isCompletedExceptionally());
+        assertTrue(results.get(3).isCompletedExceptionally());
+        final var rejected = assertThrows(CompletionException.class, () -> results.get(2).join());
+        assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(List.of(p.get(0), p.get(2)), results.get(0).join().toList());
+        assertEquals(List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)), results.get(1).join().toList());
+
+        final var resubmitted = batch.findPathsAsync(List.of(Pair.of(p.get(3), p.get(6))));
+        tasks.poll().run();
+        assertEquals(List.of(p.get(3), p.get(2), p.get(0), p.get(6)), resubmitted.get(0).join().toList());
+    }
+
+    @Test
+    void pathResultCostAndFirstHop() {
+        final double expectedCost = distance(p.get(6), p.get(0)) + distance(p.get(0), p.get(12))
+                + distance(p.get(12), p.get(15)) + distance(p.get(15), p.get(16));
+        for (final Pathfinder<DoubleDoublePair> pathfinder : List.of(aStarUndir, idaUndir)) {
+            final PathResult<DoubleDoublePair> result = pathfinder.findPathResult(p.get(6), p.get(16));
+            assertEquals(expectedCost, result.getCost(), 1e-9);
+            assertEquals(Optional.of(p.get(0)), result.getFirstHop());
+            assertEquals(List.of(
+                    directedGraph.edgeConnecting(p.get(0), p.get(6)).orElseThrow(),
+                    directedGraph.edgeConnecting(p.get(0), p.get(12)).orElseThrow(),
+                    directedGraph.edgeConnecting(p.get(12), p.get(15)).orElseThrow(),
+                    directedGraph.edgeConnecting(p.get(15), p.get(16)).orElseThrow()),
+                    result.edges(undirectedGraph));
+
+            pathfinder.findPath(p.get(3), p.get(17));
+            assertEquals(List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)), result.toList());
+        }
+    }
+
+    @Test
+    void emptyPathResult() {
+        final PathResult<DoubleDoublePair> result = aStarDir.findPathResult(p.get(3), p.get(6));
+        assertTrue(result.isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, result.getCost());
+        assertEquals(Optional.empty(), result.getFirstHop());
+        assertEquals(Collections.emptyList(), result.edges(directedGraph));
+
+        final PathResult<DoubleDoublePair> trivial = aStarDir.findPathResult(p.get(3), p.get(3));
+        assertEquals(0.0, trivial.getCost());
+        assertEquals(Optional.empty(), trivial.getFirstHop());
+    }
+
+    @Test
+    void pathfinderImplementingFindPathOnly() {
+        final Pathfinder<Integer> direct = (source, destination) ->
+                source.equals(destination) ? Collections.emptyList() : List.of(source, destination);
+
+        final PathResult<Integer> result = direct.findPathResult(1, 2);
+        assertEquals(List.of(1, 2), result.toList());
+        assertEquals(Optional.of(2), result.getFirstHop());
+        assertTrue(Double.isNaN(result.getCost()));
+        assertTrue(direct.findPathResult(1, 1).isEmpty());
+        assertEquals(Map.of(2, List.of(1, 2), 3, List.of(1, 3)), direct.findPaths(1, Set.of(2, 3)));
+    }
+
+    private static double distance(final DoubleDoublePair node1, final DoubleDoublePair node2) {
+        return euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble).apply(node1, node2);
+    }
+
+    @Test
+    void weightOverlayUpdates() {
+        final var edges = new ArrayList<>(undirectedGraph.edges());
+        final double[] weights = edges.stream().mapToDouble(e -> distance(e.left(), e.right())).toArray();
+        final var overlay = new WeightOverlay<ObjectObjectImmutablePair<DoubleDoublePair, DoubleDoublePair>>(
+                edges::indexOf, weights);
+        final var aStar = new AStarPathfinder<>(undirectedGraph, overlay,
+                euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble));
+        final var dijkstra = new DijkstraPathfinder<>(undirectedGraph, overlay);
+
+        final var direct = List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16));
+        assertEquals(direct, aStar.findPath(p.get(6), p.get(16)));
+        assertEquals(direct, dijkstra.findPath(p.get(6), p.get(16)));
+
+        final var before = overlay.snapshot();
+        final int blocked = edges.indexOf(undirectedGraph.edgeConnecting(p.get(0), p.get(12)).orElseThrow());
+        overlay.setWeights(new int[] {blocked}, new double[] {100.0});
+
+        final var detour = List.of(p.get(6), p.get(7), p.get(8), p.get(9), p.get(12), p.get(15), p.get(16));
+        assertEquals(detour, aStar.findPath(p.get(6), p.get(16)));
+        assertEquals(detour, dijkstra.findPath(p.get(6), p.get(16)));
+        assertEquals(weights[blocked], before.weightOf(blocked));
+        assertEquals(100.0, overlay.snapshot().weightOf(blocked));
+        assertEquals(before.getEpoch() + 1, overlay.snapshot().getEpoch());
+    }
+
+    @Test
+    void timeDependentWeights() {
+        final var edges = new ArrayList<>(undirectedGraph.edges());
+        final var overlay = new WeightOverlay<ObjectObjectImmutablePair<DoubleDoublePair, DoubleDoublePair>>(
+                edges::indexOf, edges.stream().mapToDouble(e -> distance(e.left(), e.right())).toArray());
+        final int congested = edges.indexOf(undirectedGraph.edgeConnecting(p.get(0), p.get(12)).orElseThrow());
+        overlay.setProfile(congested, new PiecewiseLinearProfile(new double[] {0.0, 200.0}, new double[] {100.0, 1.0}));
+        final var aStar = new AStarPathfinder<>(undirectedGraph, overlay,
+                euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble));
+
+        assertEquals(List.of(p.get(6), p.get(7), p.get(8), p.get(9), p.get(12)),
+                aStar.findPath(p.get(6), p.get(12)));
+
+        final PathResult<DoubleDoublePair> result = aStar.findPathResult(p.get(6), p.get(12), 250.0);
+        assertEquals(List.of(p.get(6), p.get(0), p.get(12)), result.toList());
+        assertEquals(distance(p.get(6), p.get(0)) + 1.0, result.getCost(), 1e-9);
+
+        final BatchPathfinder<DoubleDoublePair> batch = new BatchPathfinder<>(() -> new DijkstraPathfinder<>(
+                undirectedGraph, overlay));
+        assertEquals(List.of(List.of(p.get(6), p.get(0), p.get(12))),
+                batch.findPaths(List.of(Pair.of(p.get(6), p.get(12))), 250.0).stream()
+                        .map(PathResult::toList)
+                        .collect(Collectors.toList()));
+
+        final int other = edges.indexOf(undirectedGraph.edgeConnecting(p.get(0), p.get(6)).orElseThrow());
+        final long epoch = overlay.snapshot().getEpoch();
+        overlay.setProfiles(new int[] {congested, other}, new PiecewiseLinearProfile[] {
+                null, new PiecewiseLinearProfile(new double[] {0.0}, new double[] {7.0})});
+        assertEquals(epoch + 1, overlay.snapshot().getEpoch());
+        assertEquals(distance(p.get(0), p.get(12)), overlay.snapshot().weightOf(congested, 0.0));
+        assertEquals(7.0, overlay.snapshot().weightOf(other, 0.0));
+    }
+
+    @Test
+    void piecewiseLinearProfile() {
+        final var profile = new PiecewiseLinearProfile(new double[] {0.0, 10.0, 20.0}, new double[] {1.0, 3.0, 2.0});
+        assertEquals(1.0, profile.valueAt(-5.0));
+        assertEquals(2.0, profile.valueAt(5.0));
+        assertEquals(3.0, profile.valueAt(10.0));
+        assertEquals(2.5, profile.valueAt(15.0));
+        assertEquals(2.0, profile.valueAt(25.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new PiecewiseLinearProfile(new double[] {0.0, 10.0}, new double[] {20.0, 5.0}));
+    }
+
+    @Test
+    void memoryBoundedSearch() {
+        final var heuristic = euclideanDistance(DoubleDoublePair::leftDouble, DoubleDoublePair::rightDouble);
+        final var smaUndir = new SMAStarPathfinder<>(undirectedGraph, e -> distance(e.left(), e.right()),
+                heuristic, 5);
+        final var smaDir = new SMAStarPathfinder<>(directedGraph, e -> distance(e.left(), e.right()), heuristic, 7);
+
+        assertEquals(List.of(p.get(6), p.get(0), p.get(12), p.get(15), p.get(16)),
+                smaUndir.findPath(p.get(6), p.get(16)));
+        assertEquals(List.of(p.get(3), p.get(2), p.get(0), p.get(6)), smaUndir.findPath(p.get(3), p.get(6)));
+        assertEquals(List.of(p.get(3)), smaUndir.findPath(p.get(3), p.get(3)));
+        assertEquals(aStarUndir.findPathResult(p.get(2), p.get(17)).getCost(),
+                smaUndir.findPathResult(p.get(2), p.get(17)).getCost(), 1e-9);
+
+        assertEquals(List.of(p.get(6), p.get(7), p.get(8), p.get(9), p.get(12), p.get(15), p.get(16)),
+                smaDir.findPath(p.get(6), p.get(16)));
+        assertEquals(Collections.emptyList(), smaDir.findPath(p.get(3), p.get(6)));
+        assertEquals(Collections.emptyList(), new SMAStarPathfinder<>(directedGraph,
+                e -> distance(e.left(), e.right()), heuristic, 6).findPath(p.get(6), p.get(16)));
+
+        /*
+         * Shortest paths that only fit in memory if ties are broken in favour of shallower nodes.
+         */
+        final int[][] edges = {{0, 1, 3}, {0, 8, 1}, {8, 1, 2}, {1, 5, 2}, {5, 2, 7}, {0, 7, 10}, {7, 5, 2}};
+        final MutableNetwork<Integer, Integer> ties = NetworkBuilder.undirected().build();
+        for (int i = 0; i < edges.length; i++) {
+            ties.addEdge(edges[i][0], edges[i][1], i);
+        }
+        final var smaTies = new SMAStarPathfinder<>(ties, e -> edges[e][2], (node1, node2) -> 0.0, 4);
+        final PathResult<Integer> result = smaTies.findPathResult(0, 2);
+        assertEquals(List.of(0, 1, 5, 2), result.toList());
+        assertEquals(12.0, result.getCost());
+
+        final int[][] moreEdges = {{5, 7, 3}, {8, 1, 4}, {6, 2, 3}, {8, 4, 2}, {3, 0, 4}, {3, 5, 1}, {2, 4, 2},
+                {5, 6, 4}, {0, 7, 2}, {0, 6, 1}, {6, 3, 3}};
+        final MutableNetwork<Integer, Integer> moreTies = NetworkBuilder.undirected().build();
+        for (int i = 0; i < moreEdges.length; i++) {
+            moreTies.addEdge(moreEdges[i][0], moreEdges[i][1], i);
+        }
+        assertEquals(List.of(5, 6, 2, 4), new SMAStarPathfinder<>(moreTies, e -> moreEdges[e][2],
+                (node1, node2) -> 0.0, 4).findPath(5, 4));
+
+        /*
+         * The shortest path (8, 7, 5, 3, 0, 6) does not fit in memory, and the copy of 3 reached
+         * through it dominates the one on the best path that does.
+         */
+        final int[][] dominated = {{0, 6, 2}, {3, 7, 3}, {4, 6, 3}, {3, 0, 2}, {7, 8, 2}, {1, 6, 3}, {2, 3, 3},
+                {5, 3, 1}, {1, 3, 2}, {5, 7, 1}, {2, 5, 1}, {0, 1, 2}};
+        final MutableNetwork<Integer, Integer> dominatedGraph = NetworkBuilder.undirected().build();
+        for (int i = 0; i < dominated.length; i++) {
+            dominatedGraph.addEdge(dominated[i][0], dominated[i][1], i);
+        }
+        final PathResult<Integer> fitting = new SMAStarPathfinder<>(dominatedGraph, e -> dominated[e][2],
+                (node1, node2) -> 0.0, 5).findPathResult(8, 6);
+        assertEquals(List.of(8, 7, 3, 0, 6), fitting.toList());
+        assertEquals(9.0, fitting.getCost());
+    }
 }